@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks single-threaded and with one thread per processor, with the GC allocation profiler.
+ *
+ * Reports throughput (ops/s) and {@code gc.alloc.rate.norm} (bytes allocated per operation) for each benchmark.
+ * Standard JMH command-line options (such as a benchmark include pattern) are passed through.
+ *
+ * @since 1.3.0
+ */
+public final class BenchmarkRunner
+{
+  private BenchmarkRunner() {
+    // empty
+  }
+
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+
+    int processors = Runtime.getRuntime().availableProcessors();
+    int[] threads = processors > 1 ? new int[] { 1, processors } : new int[] { 1 };
+    for (int count : threads) {
+      Options options = new OptionsBuilder()
+          .parent(commandLine)
+          .threads(count)
+          .addProfiler(GCProfiler.class)
+          .resultFormat(ResultFormatType.JSON)
+          .result("target/jmh-result-" + count + "t.json")
+          .build();
+
+      new Runner(options).run();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlBloomFilter} benchmarks; one operation queries one package-url, mostly absent from the filter.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BloomFilterBenchmark
+{
+  private static final int VERSIONS = 100;
+
+  private PackageUrlBloomFilter filter;
+
+  private PackageUrlBloomFilter versionless;
+
+  private List<PackageUrl> keys;
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    List<PackageUrl> purls = Corpus.purls();
+    PackageUrlBloomFilter.Builder builder = PackageUrlBloomFilter.builder(purls.size(), 0.01);
+    PackageUrlBloomFilter.Builder versionlessBuilder = PackageUrlBloomFilter.builder(purls.size(), 0.01).versionless();
+    purls.forEach(builder::add);
+    purls.forEach(versionlessBuilder::add);
+    filter = builder.build();
+    versionless = versionlessBuilder.build();
+
+    keys = new ArrayList<>();
+    for (PackageUrl purl : purls) {
+      for (int i = 0; i < VERSIONS; i++) {
+        keys.add(purl.asBuilder().name(purl.getName() + i).version("1." + i).build());
+      }
+    }
+    // canonical strings are cached as by callers which parsed them
+    keys.forEach(PackageUrl::toString);
+  }
+
+  private PackageUrl next() {
+    PackageUrl result = keys.get(index);
+    index = (index + 1) % keys.size();
+    return result;
+  }
+
+  @Benchmark
+  public boolean mightContain() {
+    return filter.mightContain(next());
+  }
+
+  @Benchmark
+  public boolean mightContainVersionless() {
+    return versionless.mightContain(next());
+  }
+}
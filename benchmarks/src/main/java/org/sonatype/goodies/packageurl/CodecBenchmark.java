@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlCodec} benchmarks against the text form and Java serialization; one operation encodes or decodes
+ * one corpus entry.
+ *
+ * Text encoding is {@code toString} as UTF-8 of fresh instances, as the rendered string is otherwise cached; the
+ * average encoded size of each form is printed on setup.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark
+{
+  private List<PackageUrl> purls;
+
+  private List<byte[]> binary;
+
+  private List<byte[]> text;
+
+  private List<byte[]> serialized;
+
+  private int index;
+
+  @Setup
+  public void setup() throws IOException {
+    purls = Corpus.purls();
+    binary = new ArrayList<>(purls.size());
+    text = new ArrayList<>(purls.size());
+    serialized = new ArrayList<>(purls.size());
+    for (PackageUrl purl : purls) {
+      binary.add(PackageUrlCodec.encode(purl));
+      text.add(purl.toString().getBytes(StandardCharsets.UTF_8));
+      serialized.add(serialize(purl));
+    }
+    System.out.printf("%nAverage size (bytes): binary=%.1f, text=%.1f, java=%.1f%n",
+        average(binary), average(text), average(serialized));
+  }
+
+  private static double average(final List<byte[]> values) {
+    return values.stream().mapToInt(value -> value.length).average().orElse(0);
+  }
+
+  private int next() {
+    int result = index;
+    index = (index + 1) % purls.size();
+    return result;
+  }
+
+  private static byte[] serialize(final PackageUrl purl) throws IOException {
+    ByteArrayOutputStream buff = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(buff)) {
+      output.writeObject(purl);
+    }
+    return buff.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] encodeBinary() {
+    return PackageUrlCodec.encode(purls.get(next()));
+  }
+
+  @Benchmark
+  public byte[] encodeText() {
+    PackageUrl purl = purls.get(next());
+    PackageUrl fresh = PackageUrl.ofUnmodifiable(purl.getType(), purl.getNamespace(), purl.getName(),
+        purl.getVersion(), purl.getQualifiers(), purl.getSubpath());
+    return fresh.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] encodeJava() throws IOException {
+    return serialize(purls.get(next()));
+  }
+
+  @Benchmark
+  public PackageUrl decodeBinary() {
+    return PackageUrlCodec.decode(binary.get(next()));
+  }
+
+  @Benchmark
+  public PackageUrl decodeText() {
+    return PackageUrl.parse(new String(text.get(next()), StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public Object decodeJava() throws IOException, ClassNotFoundException {
+    try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(serialized.get(next())))) {
+      return input.readObject();
+    }
+  }
+}
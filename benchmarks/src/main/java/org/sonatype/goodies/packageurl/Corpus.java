@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmark corpus.
+ *
+ * Realistic package-urls from {@code corpus.txt} followed by the valid entries of the specification
+ * {@code test-suite-data.json}.
+ *
+ * @since 1.3.0
+ */
+final class Corpus
+{
+  private Corpus() {
+    // empty
+  }
+
+  private static final List<String> STRINGS = Collections.unmodifiableList(load());
+
+  /**
+   * Corpus as strings.
+   */
+  static List<String> strings() {
+    return STRINGS;
+  }
+
+  /**
+   * Corpus as parsed instances.
+   */
+  static List<PackageUrl> purls() {
+    List<PackageUrl> result = new ArrayList<>(STRINGS.size());
+    for (String value : STRINGS) {
+      result.add(PackageUrl.parse(value));
+    }
+    return result;
+  }
+
+  private static List<String> load() {
+    List<String> result = new ArrayList<>();
+    try {
+      try (InputStream input = open("corpus.txt");
+           BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          line = line.trim();
+          if (!line.isEmpty() && !line.startsWith("#")) {
+            result.add(line);
+          }
+        }
+      }
+
+      try (InputStream input = open("test-suite-data.json")) {
+        List<Map<String, Object>> entries = new ObjectMapper().readValue(input,
+            new TypeReference<List<Map<String, Object>>>() { });
+        for (Map<String, Object> entry : entries) {
+          if (!Boolean.TRUE.equals(entry.get("is_invalid"))) {
+            result.add((String) entry.get("purl"));
+          }
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result;
+  }
+
+  private static InputStream open(final String name) throws IOException {
+    InputStream input = Corpus.class.getResourceAsStream(name);
+    if (input == null) {
+      throw new IOException("Missing resource: " + name);
+    }
+    return input;
+  }
+}
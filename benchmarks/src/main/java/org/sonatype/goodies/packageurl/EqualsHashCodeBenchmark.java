@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrl#equals(Object)} and {@link PackageUrl#hashCode()} benchmarks.
+ *
+ * Equality is measured between distinct but equal instances, as is the case for map lookups.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EqualsHashCodeBenchmark
+{
+  private List<PackageUrl> purls;
+
+  private List<PackageUrl> copies;
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    purls = Corpus.purls();
+    copies = Corpus.purls();
+  }
+
+  private int nextIndex() {
+    int result = index;
+    index = (index + 1) % purls.size();
+    return result;
+  }
+
+  @Benchmark
+  public int hashCodes() {
+    return purls.get(nextIndex()).hashCode();
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    int i = nextIndex();
+    return purls.get(i).equals(copies.get(i));
+  }
+
+  @Benchmark
+  public boolean equalsDifferent() {
+    int i = nextIndex();
+    return purls.get(i).equals(copies.get((i + 1) % copies.size()));
+  }
+}
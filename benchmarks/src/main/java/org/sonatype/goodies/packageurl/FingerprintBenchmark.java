@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlFingerprint} benchmarks; one operation fingerprints one copy of a corpus entry which has not been
+ * rendered.
+ *
+ * {@code renderAndHash} is the previous practice of hashing the rendered string.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FingerprintBenchmark
+{
+  private static final PackageUrlPartitioner PARTITIONER = PackageUrlPartitioner.of(64);
+
+  private List<PackageUrl> purls;
+
+  private final long[] hash = new long[2];
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    purls = Corpus.purls();
+  }
+
+  private PackageUrl next() {
+    PackageUrl purl = purls.get(index);
+    index = (index + 1) % purls.size();
+    return PackageUrl.ofUnmodifiable(purl.getType(), purl.getNamespace(), purl.getName(), purl.getVersion(),
+        purl.getQualifiers(), purl.getSubpath());
+  }
+
+  @Benchmark
+  public long renderAndHash() {
+    String value = next().toString(RenderFlavor.SCHEME);
+    Murmur3.hash128(value, value.length(), hash);
+    return hash[0];
+  }
+
+  @Benchmark
+  public long fingerprint64() {
+    return PackageUrlFingerprint.of64(next());
+  }
+
+  @Benchmark
+  public long versionlessFingerprint64() {
+    return PackageUrlFingerprint.ofVersionless64(next());
+  }
+
+  @Benchmark
+  public int partition() {
+    return PARTITIONER.partition(next());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlIndexFile} lookup benchmarks; one operation looks up one package-url.
+ *
+ * The file holds the corpus with many versions of each entry; lookups alternate between present and absent keys.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexFileBenchmark
+{
+  private static final int VERSIONS = 100;
+
+  private Path file;
+
+  private PackageUrlIndexFile index;
+
+  private List<PackageUrl> keys;
+
+  @State(Scope.Thread)
+  public static class Cursor
+  {
+    int index;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    List<PackageUrl> purls = new ArrayList<>();
+    keys = new ArrayList<>();
+    for (PackageUrl purl : Corpus.purls()) {
+      for (int i = 0; i < VERSIONS; i++) {
+        purls.add(purl.asBuilder().version("1." + i).build());
+      }
+      keys.add(purl.asBuilder().version("1." + VERSIONS / 2).build());
+      keys.add(purl.asBuilder().version("2.0").build());
+    }
+    // canonical strings are cached as by callers which parsed them
+    keys.forEach(PackageUrl::toString);
+
+    file = Files.createTempFile("purls", ".idx");
+    PackageUrlIndexFile.write(file, purls.stream().distinct());
+    index = PackageUrlIndexFile.open(file);
+    System.out.printf("%nIndex file: %d entries, %d bytes%n", index.size(), Files.size(file));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    index = null;
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public long find(final Cursor cursor) {
+    PackageUrl key = keys.get(cursor.index);
+    cursor.index = (cursor.index + 1) % keys.size();
+    return index.find(key);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.packageurl.jackson.PackageUrlModule;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlModule} benchmarks; one operation serializes or deserializes the corpus as a JSON array.
+ *
+ * {@code BASELINE} is the original module implementation, which coerces tokens via databind and renders to strings;
+ * {@code CACHED} configures the module with a {@link PackageUrlCache}.  Instances cache their rendered strings;
+ * {@code serialize} writes instances which have already been rendered, {@code serializeFresh} copies of them which
+ * have not.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark
+{
+  public enum Implementation
+  {
+    BASELINE,
+    MODULE,
+    CACHED
+  }
+
+  private static final TypeReference<List<PackageUrl>> LIST_TYPE = new TypeReference<List<PackageUrl>>() { };
+
+  @Param({"BASELINE", "MODULE", "CACHED"})
+  private Implementation implementation;
+
+  private ObjectMapper mapper;
+
+  private List<PackageUrl> purls;
+
+  private String json;
+
+  @Setup
+  public void setup() throws IOException {
+    switch (implementation) {
+      case BASELINE:
+        mapper = new ObjectMapper().registerModule(new BaselineModule());
+        break;
+      case MODULE:
+        mapper = new ObjectMapper().registerModule(new PackageUrlModule());
+        break;
+      case CACHED:
+        mapper = new ObjectMapper().registerModule(new PackageUrlModule().withCache(PackageUrlCache.lru(4096)));
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+    purls = Corpus.purls();
+    for (PackageUrl purl : purls) {
+      purl.toString(RenderFlavor.getDefault());
+    }
+    json = mapper.writeValueAsString(purls);
+  }
+
+  @Benchmark
+  public String serialize() throws IOException {
+    return mapper.writeValueAsString(purls);
+  }
+
+  @Benchmark
+  public String serializeFresh() throws IOException {
+    List<PackageUrl> fresh = new ArrayList<>(purls.size());
+    for (PackageUrl purl : purls) {
+      fresh.add(PackageUrl.ofUnmodifiable(purl.getType(), purl.getNamespace(), purl.getName(), purl.getVersion(),
+          purl.getQualifiers(), purl.getSubpath()));
+    }
+    return mapper.writeValueAsString(fresh);
+  }
+
+  @Benchmark
+  public List<PackageUrl> deserialize() throws IOException {
+    return mapper.readValue(json, LIST_TYPE);
+  }
+
+  /**
+   * Original {@link PackageUrlModule} implementation.
+   */
+  private static class BaselineModule
+      extends SimpleModule
+  {
+    private static final long serialVersionUID = 1L;
+
+    BaselineModule() {
+      addSerializer(PackageUrl.class, new StdSerializer<PackageUrl>(PackageUrl.class)
+      {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void serialize(final PackageUrl value, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException
+        {
+          generator.writeString(value.toString(RenderFlavor.getDefault()));
+        }
+      });
+      addDeserializer(PackageUrl.class, new StdDeserializer<PackageUrl>(PackageUrl.class)
+      {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public PackageUrl deserialize(final JsonParser parser, final DeserializationContext context)
+            throws IOException
+        {
+          return PackageUrl.parse(parser.readValueAs(String.class));
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PercentEncoding} benchmarks; one operation encodes or decodes one component value from the corpus.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercentEncodingBenchmark
+{
+  private List<String> decoded;
+
+  private List<String> encoded;
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    decoded = new ArrayList<>();
+    for (PackageUrl purl : Corpus.purls()) {
+      decoded.add(purl.getName());
+      if (purl.getVersion() != null) {
+        decoded.add(purl.getVersion());
+      }
+      if (purl.getQualifiers() != null) {
+        decoded.addAll(purl.getQualifiers().values());
+      }
+    }
+    encoded = new ArrayList<>(decoded.size());
+    for (String value : decoded) {
+      encoded.add(PercentEncoding.encode(value));
+    }
+  }
+
+  private int nextIndex() {
+    int result = index;
+    index = (index + 1) % decoded.size();
+    return result;
+  }
+
+  @Benchmark
+  public String encode() {
+    return PercentEncoding.encode(decoded.get(nextIndex()));
+  }
+
+  @Benchmark
+  public String encodeName() {
+    return PercentEncoding.encodeName(decoded.get(nextIndex()));
+  }
+
+  @Benchmark
+  public String decode() {
+    return PercentEncoding.decode(encoded.get(nextIndex()));
+  }
+}
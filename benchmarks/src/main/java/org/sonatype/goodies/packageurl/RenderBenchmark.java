@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrl} rendering benchmarks; one operation renders one corpus entry.
+ *
+ * {@code render} caches the rendered string on each instance; {@code appendTo} and {@code writeUtf8} encode directly
+ * into a reused buffer on every operation.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark
+{
+  @Param({"SCHEME", "SCHEMELESS"})
+  private RenderFlavor flavor;
+
+  private List<PackageUrl> purls;
+
+  private int index;
+
+  private final StringBuilder builder = new StringBuilder(256);
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+  @Setup
+  public void setup() {
+    purls = Corpus.purls();
+  }
+
+  private PackageUrl next() {
+    PackageUrl purl = purls.get(index);
+    index = (index + 1) % purls.size();
+    return purl;
+  }
+
+  @Benchmark
+  public String render() {
+    return next().toString(flavor);
+  }
+
+  @Benchmark
+  public Object toUri() {
+    return next().toUri();
+  }
+
+  @Benchmark
+  public int appendTo() {
+    builder.setLength(0);
+    return next().appendTo(builder, flavor).length();
+  }
+
+  @Benchmark
+  public int writeUtf8() {
+    buffer.clear();
+    return next().writeUtf8(buffer, flavor);
+  }
+}
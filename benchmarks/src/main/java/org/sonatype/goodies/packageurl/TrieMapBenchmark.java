@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlTrieMap} benchmarks against {@link HashMap}; one operation looks up one key.
+ *
+ * Keys are the corpus with many versions of each entry, parsed individually as from an SBOM.  The retained heap per
+ * entry of each map, holding its only references to the parsed keys, is printed on setup.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrieMapBenchmark
+{
+  private static final int VERSIONS = 100;
+
+  @Param({"TRIE", "HASH"})
+  private String implementation;
+
+  private Map<PackageUrl, Integer> map;
+
+  private List<PackageUrl> keys;
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    Supplier<Map<PackageUrl, Integer>> factory =
+        "TRIE".equals(implementation) ? PackageUrlTrieMap::new : HashMap::new;
+
+    long before = usedHeap();
+    map = build(factory);
+    long after = usedHeap();
+    System.out.printf("%nRetained heap (bytes/entry): %s=%.1f%n", implementation,
+        (after - before) / (double) map.size());
+
+    keys = new ArrayList<>(parse());
+  }
+
+  private static List<PackageUrl> parse() {
+    List<PackageUrl> result = new ArrayList<>();
+    for (String value : Corpus.strings()) {
+      PackageUrl purl = PackageUrl.parse(value);
+      for (int i = 0; i < VERSIONS; i++) {
+        result.add(PackageUrl.parse(purl.asBuilder().version("1." + i).build().toString()));
+      }
+    }
+    return result;
+  }
+
+  private static Map<PackageUrl, Integer> build(final Supplier<Map<PackageUrl, Integer>> factory) {
+    Map<PackageUrl, Integer> result = factory.get();
+    List<PackageUrl> purls = parse();
+    for (int i = 0; i < purls.size(); i++) {
+      result.put(purls.get(i), i);
+    }
+    return result;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 4; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  @Benchmark
+  public Integer get() {
+    PackageUrl key = keys.get(index);
+    index = (index + 1) % keys.size();
+    return map.get(key);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackageUrlValidator} benchmarks; one operation validates the components of one corpus entry.
+ *
+ * {@link #patterns()} is the former {@link Pattern} based validation, for comparison with {@link #tables()}.
+ *
+ * @since 1.3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark
+{
+  private static final Pattern TYPE_PATTERN = Pattern.compile(PackageUrlParser.TYPE);
+
+  private static final Pattern NAMESPACE_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.NAMESPACE_SEGMENT);
+
+  private static final Pattern VERSION_PATTERN = Pattern.compile(PackageUrlParser.VERSION);
+
+  private static final Pattern QUALIFIER_KEY_PATTERN = Pattern.compile(PackageUrlParser.QUALIFIER_KEY);
+
+  private static final Pattern SUBPATH_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.SUBPATH_SEGMENT);
+
+  private List<PackageUrl> purls;
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    purls = Corpus.purls();
+  }
+
+  private PackageUrl next() {
+    PackageUrl purl = purls.get(index);
+    index = (index + 1) % purls.size();
+    return purl;
+  }
+
+  @Benchmark
+  public PackageUrl tables() {
+    PackageUrl purl = next();
+    PackageUrlValidator.validateType(purl.getType());
+    PackageUrlValidator.validateNamespace(purl.getNamespace());
+    PackageUrlValidator.validateName(purl.getName());
+    PackageUrlValidator.validateVersion(purl.getVersion());
+    PackageUrlValidator.validateQualifiers(purl.getQualifiers());
+    PackageUrlValidator.validateSubpath(purl.getSubpath());
+    return purl;
+  }
+
+  @Benchmark
+  public PackageUrl patterns() {
+    PackageUrl purl = next();
+    check(TYPE_PATTERN, purl.getType());
+    check(NAMESPACE_SEGMENT_PATTERN, purl.getNamespace());
+    if (purl.getVersion() != null) {
+      check(VERSION_PATTERN, purl.getVersion());
+    }
+    if (purl.getQualifiers() != null) {
+      for (Map.Entry<String, String> entry : purl.getQualifiers().entrySet()) {
+        check(QUALIFIER_KEY_PATTERN, entry.getKey());
+      }
+    }
+    check(SUBPATH_SEGMENT_PATTERN, purl.getSubpath());
+    return purl;
+  }
+
+  private static void check(final Pattern pattern, final List<String> segments) {
+    if (segments != null) {
+      for (String segment : segments) {
+        check(pattern, segment);
+      }
+    }
+  }
+
+  private static void check(final Pattern pattern, final String value) {
+    if (!pattern.matcher(value).matches()) {
+      throw new InvalidException("Invalid: " + value);
+    }
+  }
+}
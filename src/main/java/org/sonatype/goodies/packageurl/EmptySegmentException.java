@@ -21,6 +21,17 @@ public class EmptySegmentException
     extends InvalidException
 {
   EmptySegmentException(final String value) {
-    super("Empty segment in: " + value);
+    super(message(value));
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  EmptySegmentException(final String value, final boolean stackTrace) {
+    super(message(value), stackTrace);
+  }
+
+  static String message(final String value) {
+    return "Empty segment in: " + value;
   }
 }
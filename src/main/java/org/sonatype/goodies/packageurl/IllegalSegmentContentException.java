@@ -21,6 +21,17 @@ public class IllegalSegmentContentException
     extends InvalidException
 {
   IllegalSegmentContentException(final String content, final String value) {
-    super("Illegal segment content: " + content + " in: " + value);
+    super(message(content, value));
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  IllegalSegmentContentException(final String content, final String value, final boolean stackTrace) {
+    super(message(content, value), stackTrace);
+  }
+
+  static String message(final String content, final String value) {
+    return "Illegal segment content: " + content + " in: " + value;
   }
 }
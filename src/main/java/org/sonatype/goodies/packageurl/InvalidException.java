@@ -23,4 +23,12 @@ public class InvalidException
   InvalidException(final String message) {
     super(message);
   }
+
+  /**
+   * @param stackTrace {@code false} to skip capturing the stack trace; for failures reported on hot paths.
+   * @since 1.3.0
+   */
+  InvalidException(final String message, final boolean stackTrace) {
+    super(message, null, true, stackTrace);
+  }
 }
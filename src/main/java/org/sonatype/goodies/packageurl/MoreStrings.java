@@ -13,6 +13,7 @@
 package org.sonatype.goodies.packageurl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -37,20 +38,100 @@ final class MoreStrings
   }
 
   /**
-   * Convert given list of values to lower-case.
+   * Convert given list of values to lower-case; returns given list when no value changes.
    */
   @Nullable
   static List<String> lowerCase(@Nullable final List<String> values) {
     if (values != null) {
-      List<String> result = new ArrayList<>(values.size());
-      for (String value : values) {
-        result.add(lowerCase(value));
+      List<String> result = null;
+      for (int i = 0, size = values.size(); i < size; i++) {
+        String value = values.get(i);
+        String lower = lowerCase(value);
+        if (result == null && lower != value) {
+          result = new ArrayList<>(values.subList(0, i));
+        }
+        if (result != null) {
+          result.add(lower);
+        }
       }
-      return result;
+      return result != null ? result : values;
     }
     return null;
   }
 
+  /**
+   * Table of given lower-case ASCII constants by first character, for {@link #constant}.
+   *
+   * @since 1.3.0
+   */
+  static String[][] constants(final String... values) {
+    String[][] result = new String[128][];
+    for (String value : values) {
+      int c = value.charAt(0);
+      String[] bucket = result[c];
+      bucket = bucket == null ? new String[1] : Arrays.copyOf(bucket, bucket.length + 1);
+      bucket[bucket.length - 1] = value;
+      result[c] = bucket;
+    }
+    return result;
+  }
+
+  /**
+   * Constant of given table equal to given range of value; or {@code null} if none.
+   *
+   * @param ignoreCase match the lower-case constants ignoring case of the range.
+   * @since 1.3.0
+   */
+  @Nullable
+  static String constant(final String[][] constants,
+                         final CharSequence value,
+                         final int start,
+                         final int end,
+                         final boolean ignoreCase)
+  {
+    if (start == end) {
+      return null;
+    }
+    char c = value.charAt(start);
+    if (ignoreCase && c >= 'A' && c <= 'Z') {
+      c += 'a' - 'A';
+    }
+    String[] bucket = c < 128 ? constants[c] : null;
+    if (bucket != null) {
+      int length = end - start;
+      for (String constant : bucket) {
+        if (constant.length() == length && regionMatches(value, start, constant, length, ignoreCase)) {
+          return constant;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Check if given range of value is equal to given lower-case ASCII constant; optionally ignoring ASCII case.
+   */
+  private static boolean regionMatches(final CharSequence value,
+                                       final int start,
+                                       final String constant,
+                                       final int length,
+                                       final boolean ignoreCase)
+  {
+    if (value instanceof String) {
+      return ((String) value).regionMatches(ignoreCase, start, constant, 0, length);
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(start + i);
+      if (ignoreCase && c >= 'A' && c <= 'Z') {
+        c += 'a' - 'A';
+      }
+      if (c != constant.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Check if given string is {@code null}, empty {@literal ""} or only contains whitespace.
    *
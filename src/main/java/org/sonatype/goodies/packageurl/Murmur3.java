@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+/**
+ * MurmurHash3 x64 128-bit hash of ASCII character sequences; each character is hashed as one byte.
+ *
+ * Produces the same values as the reference {@code MurmurHash3_x64_128} of the bytes with seed {@code 0}.
+ *
+ * @since 1.3.0
+ */
+final class Murmur3
+{
+  private Murmur3() {
+    // empty
+  }
+
+  private static final long C1 = 0x87c37b91114253d5L;
+
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  /**
+   * Hash the first {@code length} characters of given value into the two halves of result.
+   */
+  static void hash128(final CharSequence value, final int length, final long[] result) {
+    long h1 = 0;
+    long h2 = 0;
+    int i = 0;
+    for (; i + 16 <= length; i += 16) {
+      h1 = mixH1(h1, h2, getLong(value, i));
+      h2 = mixH2(h1, h2, getLong(value, i + 8));
+    }
+
+    int remaining = length - i;
+    if (remaining > 8) {
+      long k2 = 0;
+      for (int j = remaining - 1; j >= 8; j--) {
+        k2 ^= (long) (value.charAt(i + j) & 0xFF) << ((j - 8) * 8);
+      }
+      h2 ^= mixK2(k2);
+    }
+    if (remaining > 0) {
+      long k1 = 0;
+      for (int j = Math.min(remaining, 8) - 1; j >= 0; j--) {
+        k1 ^= (long) (value.charAt(i + j) & 0xFF) << (j * 8);
+      }
+      h1 ^= mixK1(k1);
+    }
+
+    finish(h1, h2, length, result);
+  }
+
+  private static void finish(final long h1, final long h2, final long length, final long[] result) {
+    long a = h1 ^ length;
+    long b = h2 ^ length;
+    a += b;
+    b += a;
+    a = fmix(a);
+    b = fmix(b);
+    a += b;
+    b += a;
+    result[0] = a;
+    result[1] = b;
+  }
+
+  /**
+   * Incremental hash of appended ASCII characters; same value as {@link #hash128} of all appended characters.
+   */
+  static final class Hasher
+      implements Appendable
+  {
+    private final long[] result = new long[2];
+
+    private long h1;
+
+    private long h2;
+
+    private long k1;
+
+    private long k2;
+
+    private long length;
+
+    @Override
+    public Hasher append(final char c) {
+      int index = (int) (length++ & 15);
+      long b = c & 0xFF;
+      if (index < 8) {
+        k1 |= b << (index * 8);
+      }
+      else {
+        k2 |= b << ((index - 8) * 8);
+        if (index == 15) {
+          h1 = mixH1(h1, h2, k1);
+          h2 = mixH2(h1, h2, k2);
+          k1 = 0;
+          k2 = 0;
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public Hasher append(final CharSequence value) {
+      return append(value, 0, value.length());
+    }
+
+    @Override
+    public Hasher append(final CharSequence value, final int start, final int end) {
+      for (int i = start; i < end; i++) {
+        append(value.charAt(i));
+      }
+      return this;
+    }
+
+    /**
+     * Hash of appended characters; first half at index {@code 0}.
+     */
+    long[] finish() {
+      int remaining = (int) (length & 15);
+      long a = h1;
+      long b = h2;
+      if (remaining > 8) {
+        b ^= mixK2(k2);
+      }
+      if (remaining > 0) {
+        a ^= mixK1(k1);
+      }
+      Murmur3.finish(a, b, length, result);
+      return result;
+    }
+  }
+
+  /**
+   * Little-endian 8 characters as bytes.
+   */
+  private static long getLong(final CharSequence value, final int index) {
+    long result = 0;
+    for (int j = 7; j >= 0; j--) {
+      result = (result << 8) | (value.charAt(index + j) & 0xFF);
+    }
+    return result;
+  }
+
+  private static long mixH1(final long h1, final long h2, final long k1) {
+    return (Long.rotateLeft(h1 ^ mixK1(k1), 27) + h2) * 5 + 0x52dce729;
+  }
+
+  private static long mixH2(final long h1, final long h2, final long k2) {
+    return (Long.rotateLeft(h2 ^ mixK2(k2), 31) + h1) * 5 + 0x38495ab5;
+  }
+
+  private static long mixK1(final long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(final long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix(final long value) {
+    long k = value;
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
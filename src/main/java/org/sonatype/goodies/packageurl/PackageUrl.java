@@ -12,28 +12,36 @@
  */
 package org.sonatype.goodies.packageurl;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.Iterator;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.SortedMap;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
-import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableSortedMap;
 import static java.util.Objects.requireNonNull;
-import static org.sonatype.goodies.packageurl.PercentEncoding.encodeName;
-import static org.sonatype.goodies.packageurl.PercentEncoding.encodeQualifierValue;
-import static org.sonatype.goodies.packageurl.PercentEncoding.encodeSegment;
-import static org.sonatype.goodies.packageurl.PercentEncoding.encodeVersion;
+import static org.sonatype.goodies.packageurl.PercentEncoding.appendName;
+import static org.sonatype.goodies.packageurl.PercentEncoding.appendQualifierValue;
+import static org.sonatype.goodies.packageurl.PercentEncoding.appendSegment;
+import static org.sonatype.goodies.packageurl.PercentEncoding.appendVersion;
 
 /**
  * <a href="https://github.com/package-url/purl-spec">Package URL</a>.
  *
+ * Serialized in the compact {@link PackageUrlCodec} form via a serialization proxy; instances serialized by earlier
+ * versions are still read.  Values with unpaired surrogates, which the codec rejects, are serialized by field as by
+ * earlier versions, so serialization is always lossless.  Deserialized values are validated.
+ *
  * @see PackageUrlBuilder
  * @since 1.0.0
  */
@@ -50,8 +58,16 @@ public class PackageUrl
    */
   public static final String SCHEME = "pkg";
 
+  /**
+   * Shared default parser.
+   */
+  private static final PackageUrlParser PARSER = new PackageUrlParser().freeze();
+
   private final String type;
 
+  /**
+   * Namespace segments; always a compact {@link SegmentList}.
+   */
   @Nullable
   private final List<String> namespace;
 
@@ -61,16 +77,34 @@ public class PackageUrl
   private final String version;
 
   /**
-   * Sorted map of qualifiers (lexicographically).
+   * Sorted map of qualifiers (lexicographically); always a compact {@link QualifierMap}.
    *
    * See: https://github.com/package-url/purl-spec/issues/51
    */
   @Nullable
   private final SortedMap<String, String> qualifiers;
 
+  /**
+   * Subpath segments; always a compact {@link SegmentList}.
+   */
   @Nullable
   private final List<String> subpath;
 
+  //
+  // Lazily computed derived values.  Strings are immutable and may be published via a data race, as is the hash which
+  // is recomputed if observed as 0.  URI is not final-field safe, so its references are volatile.
+  //
+
+  private transient String schemeString;
+
+  private transient String schemelessString;
+
+  private transient int hash;
+
+  private transient volatile URI schemeUri;
+
+  private transient volatile URI schemelessUri;
+
   /**
    * Values should have already been validated via {@link PackageUrlBuilder} and {@link PackageUrlValidator}.
    */
@@ -80,13 +114,47 @@ public class PackageUrl
              @Nullable final String version,
              @Nullable final SortedMap<String, String> qualifiers,
              @Nullable final List<String> subpath)
+  {
+    this(type,
+        namespace != null ? SegmentList.copyOf(namespace) : null,
+        name,
+        version,
+        qualifiers != null ? QualifierMap.copyOf(qualifiers) : null,
+        subpath != null ? SegmentList.copyOf(subpath) : null);
+  }
+
+  /**
+   * Compact segments and qualifiers are immutable, so are used as-is and may be shared between instances.
+   */
+  private PackageUrl(final String type,
+                     @Nullable final SegmentList namespace,
+                     final String name,
+                     @Nullable final String version,
+                     @Nullable final QualifierMap qualifiers,
+                     @Nullable final SegmentList subpath)
   {
     this.type = requireNonNull(type);
-    this.namespace = namespace != null ? unmodifiableList(namespace) : null;
+    this.namespace = namespace;
     this.name = requireNonNull(name);
     this.version = version;
-    this.qualifiers = qualifiers != null ? unmodifiableSortedMap(qualifiers) : null;
-    this.subpath = subpath != null ? unmodifiableList(subpath) : null;
+    this.qualifiers = qualifiers;
+    this.subpath = subpath;
+  }
+
+  /**
+   * Create from compact segments and qualifiers, which are used as-is.
+   *
+   * @see PackageUrlInterner
+   * @since 1.3.0
+   */
+  static PackageUrl ofUnmodifiable(final String type,
+                                   @Nullable final SegmentList namespace,
+                                   final String name,
+                                   @Nullable final String version,
+                                   @Nullable final QualifierMap qualifiers,
+                                   @Nullable final SegmentList subpath)
+  {
+    return new PackageUrl(type, namespace, name, version, qualifiers, subpath);
   }
 
   public String getType() {
@@ -100,11 +168,13 @@ public class PackageUrl
 
   /**
    * Return {@link #namespace} as a string representation (unencoded segments).
+   *
+   * The representation is computed once.
    */
   @Nullable
   public String getNamespaceAsString() {
     if (namespace != null && !namespace.isEmpty()) {
-      return renderSegments(new StringBuilder(), namespace, false).toString();
+      return ((SegmentList) namespace).asString();
     }
     return null;
   }
@@ -123,6 +193,17 @@ public class PackageUrl
     return qualifiers;
   }
 
+  /**
+   * Return value of qualifier with given key; or {@code null} if there is no such qualifier.
+   *
+   * @since 1.3.0
+   */
+  @Nullable
+  public String getQualifier(final String key) {
+    requireNonNull(key);
+    return qualifiers != null ? qualifiers.get(key) : null;
+  }
+
   @Nullable
   public List<String> getSubpath() {
     return subpath;
@@ -130,11 +211,13 @@ public class PackageUrl
 
   /**
    * Return {@link #subpath} as a string representation (unencoded segments).
+   *
+   * The representation is computed once.
    */
   @Nullable
   public String getSubpathAsString() {
     if (subpath != null && !subpath.isEmpty()) {
-      return renderSegments(new StringBuilder(), subpath, false).toString();
+      return ((SegmentList) subpath).asString();
     }
     return null;
   }
@@ -148,6 +231,9 @@ public class PackageUrl
       return false;
     }
     PackageUrl that = (PackageUrl) o;
+    if (hash != 0 && that.hash != 0 && hash != that.hash) {
+      return false;
+    }
     return Objects.equals(type, that.type) &&
         Objects.equals(namespace, that.namespace) &&
         Objects.equals(name, that.name) &&
@@ -156,9 +242,23 @@ public class PackageUrl
         Objects.equals(subpath, that.subpath);
   }
 
+  /**
+   * Same value as {@code Objects.hash(type, namespace, name, version, qualifiers, subpath)}; computed once.
+   */
   @Override
   public int hashCode() {
-    return Objects.hash(type, namespace, name, version, qualifiers, subpath);
+    int result = hash;
+    if (result == 0) {
+      result = 1;
+      result = 31 * result + type.hashCode();
+      result = 31 * result + Objects.hashCode(namespace);
+      result = 31 * result + name.hashCode();
+      result = 31 * result + Objects.hashCode(version);
+      result = 31 * result + Objects.hashCode(qualifiers);
+      result = 31 * result + Objects.hashCode(subpath);
+      hash = result;
+    }
+    return result;
   }
 
   /**
@@ -184,12 +284,25 @@ public class PackageUrl
   }
 
   /**
-   * Convert to a URI.
+   * Convert to a URI with {@link RenderFlavor#getDefault() default flavor}.
    *
    * @since 1.1.0
    */
   public URI toUri() {
-    return URI.create(toString());
+    if (RenderFlavor.getDefault() == RenderFlavor.SCHEME) {
+      URI result = schemeUri;
+      if (result == null) {
+        schemeUri = result = URI.create(toString(RenderFlavor.SCHEME));
+      }
+      return result;
+    }
+    else {
+      URI result = schemelessUri;
+      if (result == null) {
+        schemelessUri = result = URI.create(toString(RenderFlavor.SCHEMELESS));
+      }
+      return result;
+    }
   }
 
   /**
@@ -202,12 +315,158 @@ public class PackageUrl
 
   /**
    * Convert to canonical string representation with given rendering flavor.
+   *
+   * The rendered value is computed once per flavor.
    */
   public String toString(final RenderFlavor flavor) {
     requireNonNull(flavor);
 
+    if (flavor == RenderFlavor.SCHEME) {
+      String result = schemeString;
+      if (result == null) {
+        schemeString = result = render(flavor);
+      }
+      return result;
+    }
+    else {
+      String result = schemelessString;
+      if (result == null) {
+        schemelessString = result = render(flavor);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Canonical string representation with given rendering flavor if it has already been computed; or {@code null}.
+   *
+   * @see #toString(RenderFlavor)
+   * @since 1.3.0
+   */
+  @Nullable
+  public String toStringIfRendered(final RenderFlavor flavor) {
+    requireNonNull(flavor);
+    return flavor == RenderFlavor.SCHEME ? schemeString : schemelessString;
+  }
+
+  /**
+   * Append canonical string representation with given rendering flavor to given output.
+   *
+   * Components are encoded directly into the output with-out intermediate strings; unless the representation has
+   * already been computed, in which case it is appended as-is.
+   *
+   * @since 1.3.0
+   */
+  public <A extends Appendable> A appendTo(final A out, final RenderFlavor flavor) throws IOException {
+    requireNonNull(out);
+    requireNonNull(flavor);
+
+    String cached = flavor == RenderFlavor.SCHEME ? schemeString : schemelessString;
+    if (cached != null) {
+      out.append(cached);
+    }
+    else {
+      render(out, flavor);
+    }
+    return out;
+  }
+
+  /**
+   * Append canonical string representation with given rendering flavor to given builder.
+   *
+   * @see #appendTo(Appendable, RenderFlavor)
+   * @since 1.3.0
+   */
+  public StringBuilder appendTo(final StringBuilder out, final RenderFlavor flavor) {
+    try {
+      appendTo((Appendable) out, flavor);
+    }
+    catch (IOException e) {
+      // StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+    return out;
+  }
+
+  /**
+   * Write UTF-8 encoded canonical string representation with given rendering flavor to given buffer.
+   *
+   * The representation is ASCII, so each character is written as one byte.
+   *
+   * @return the number of bytes written.
+   * @throws BufferOverflowException if the buffer has insufficient space; the buffer position is left unchanged.
+   * @since 1.3.0
+   */
+  public int writeUtf8(final ByteBuffer buffer, final RenderFlavor flavor) {
+    requireNonNull(buffer);
+    int position = buffer.position();
+    try {
+      appendTo(new AsciiBufferAppendable(buffer), flavor);
+    }
+    catch (BufferOverflowException e) {
+      buffer.position(position);
+      throw e;
+    }
+    catch (IOException e) {
+      // buffer does not throw
+      throw new UncheckedIOException(e);
+    }
+    return buffer.position() - position;
+  }
+
+  /**
+   * Write UTF-8 encoded canonical string representation with given rendering flavor to given stream.
+   *
+   * The representation is ASCII, so each character is written as one byte.  Bytes are written in chunks; the stream
+   * is not flushed.
+   *
+   * @return the number of bytes written.
+   * @since 1.3.0
+   */
+  public int writeUtf8(final OutputStream output, final RenderFlavor flavor) throws IOException {
+    requireNonNull(output);
+    AsciiStreamAppendable out = new AsciiStreamAppendable(output);
+    appendTo(out, flavor);
+    return out.flush();
+  }
+
+  /**
+   * Render canonical string representation with given rendering flavor.
+   */
+  private String render(final RenderFlavor flavor) {
     StringBuilder buff = new StringBuilder();
+    try {
+      render(buff, flavor);
+    }
+    catch (IOException e) {
+      // StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+    return buff.toString();
+  }
 
+  /**
+   * Append canonical {@link RenderFlavor#SCHEME} string representation of type, namespace and name to given output;
+   * with-out version, qualifiers and subpath.
+   */
+  void appendCoordinatesTo(final Appendable out) throws IOException {
+    String cached = schemeString;
+    if (cached != null) {
+      int end = 0;
+      while (end < cached.length() && "@?#".indexOf(cached.charAt(end)) == -1) {
+        end++;
+      }
+      out.append(cached, 0, end);
+    }
+    else {
+      renderCoordinates(out, RenderFlavor.SCHEME);
+    }
+  }
+
+  /**
+   * Render type, namespace and name with given rendering flavor to output.
+   */
+  private void renderCoordinates(final Appendable buff, final RenderFlavor flavor) throws IOException {
     if (flavor == RenderFlavor.SCHEME) {
       buff.append(SCHEME).append(':');
     }
@@ -222,62 +481,233 @@ public class PackageUrl
     }
 
     if (namespace != null && !namespace.isEmpty()) {
-      renderSegments(buff, namespace, true);
+      renderSegments(buff, namespace);
       buff.append('/');
     }
 
-    buff.append(encodeName(name));
+    appendName(buff, name);
+  }
+
+  /**
+   * Render canonical string representation with given rendering flavor to output.
+   */
+  private void render(final Appendable buff, final RenderFlavor flavor) throws IOException {
+    renderCoordinates(buff, flavor);
 
     if (version != null) {
-      buff.append('@').append(encodeVersion(version));
+      buff.append('@');
+      appendVersion(buff, version);
     }
 
     if (qualifiers != null && !qualifiers.isEmpty()) {
       buff.append('?');
 
-      String separator = "";
-      for (Entry<String, String> entry : qualifiers.entrySet()) {
-        buff.append(separator).append(entry.getKey()).append('=').append(encodeQualifierValue(entry.getValue()));
-        separator = "&";
+      QualifierMap map = (QualifierMap) qualifiers;
+      for (int i = 0, size = map.size(); i < size; i++) {
+        if (i > 0) {
+          buff.append('&');
+        }
+        buff.append(map.keyAt(i)).append('=');
+        appendQualifierValue(buff, map.valueAt(i));
       }
     }
 
     if (subpath != null && !subpath.isEmpty()) {
       buff.append('#');
-      renderSegments(buff, subpath, true);
+      renderSegments(buff, subpath);
     }
+  }
 
-    return buff.toString();
+  /**
+   * Render encoded segments to output.
+   */
+  private static void renderSegments(final Appendable buff, final List<String> segments) throws IOException {
+    for (int i = 0, size = segments.size(); i < size; i++) {
+      if (i > 0) {
+        buff.append('/');
+      }
+      appendSegment(buff, segments.get(i));
+    }
   }
 
   /**
-   * Render segments to buffer.
+   * Writes ASCII characters as bytes to a {@link ByteBuffer}.
    */
-  private static StringBuilder renderSegments(final StringBuilder buff,
-                                              final List<String> segments,
-                                              final boolean encode)
+  private static final class AsciiBufferAppendable
+      implements Appendable
   {
-    Iterator<String> iter = segments.iterator();
-    while (iter.hasNext()) {
-      String segment = iter.next();
-      if (encode) {
-        segment = encodeSegment(segment);
+    private final ByteBuffer buffer;
+
+    AsciiBufferAppendable(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) {
+      if (buffer.remaining() < end - start) {
+        throw new BufferOverflowException();
       }
-      buff.append(segment);
-      if (iter.hasNext()) {
-        buff.append('/');
+      for (int i = start; i < end; i++) {
+        buffer.put(ascii(csq.charAt(i)));
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(final char c) {
+      buffer.put(ascii(c));
+      return this;
+    }
+  }
+
+  /**
+   * Writes ASCII characters as bytes to an {@link OutputStream} in chunks.
+   */
+  private static final class AsciiStreamAppendable
+      implements Appendable
+  {
+    private final OutputStream output;
+
+    private final byte[] chunk = new byte[256];
+
+    private int size;
+
+    private int count;
+
+    AsciiStreamAppendable(final OutputStream output) {
+      this.output = output;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+      for (int i = start; i < end; i++) {
+        append(csq.charAt(i));
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+      if (size == chunk.length) {
+        flush();
+      }
+      chunk[size++] = ascii(c);
+      return this;
+    }
+
+    /**
+     * Write buffered bytes; returns total bytes written.
+     */
+    int flush() throws IOException {
+      output.write(chunk, 0, size);
+      count += size;
+      size = 0;
+      return count;
+    }
+  }
+
+  /**
+   * Rendered characters are ASCII; types and qualifier keys are validated and all other components encoded.
+   */
+  private static byte ascii(final char c) {
+    return c < 128 ? (byte) c : (byte) '?';
+  }
+
+  /**
+   * Serialize as {@link SerializedForm}; or by field if the codec rejects a value with unpaired surrogates, as field
+   * strings are written losslessly.
+   */
+  private Object writeReplace() {
+    try {
+      return new SerializedForm(PackageUrlCodec.encode(this));
+    }
+    catch (IllegalArgumentException e) {
+      return this;
+    }
+  }
+
+  /**
+   * Instances serialized by earlier versions, or by field, hold their fields; possibly in other collection
+   * implementations.
+   *
+   * Values are validated and copied into the compact collections.
+   */
+  private Object readResolve() throws ObjectStreamException {
+    try {
+      PackageUrlValidator.validateType(type);
+      PackageUrlValidator.validateNamespace(namespace);
+      PackageUrlValidator.validateName(name);
+      PackageUrlValidator.validateVersion(version);
+      PackageUrlValidator.validateQualifiers(qualifiers);
+      PackageUrlValidator.validateSubpath(subpath);
+
+      return new PackageUrl(type,
+          namespace != null ? SegmentList.of(namespace.toArray(new String[0])) : null,
+          name,
+          version,
+          qualifiers != null ? QualifierMap.normalize(new LinkedHashMap<>(qualifiers)) : null,
+          subpath != null ? SegmentList.of(subpath.toArray(new String[0])) : null);
+    }
+    catch (RuntimeException e) {
+      throw invalidObject(e);
+    }
+  }
+
+  private static InvalidObjectException invalidObject(final RuntimeException cause) {
+    InvalidObjectException result = new InvalidObjectException("Invalid serialized package-url: " + cause.getMessage());
+    result.initCause(cause);
+    return result;
+  }
+
+  /**
+   * Serialization proxy; holds the {@link PackageUrlCodec} encoding.
+   *
+   * @since 1.3.0
+   */
+  private static final class SerializedForm
+      implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] encoded;
+
+    SerializedForm(final byte[] encoded) {
+      this.encoded = encoded;
+    }
+
+    /**
+     * Decoding validates values.
+     */
+    private Object readResolve() throws ObjectStreamException {
+      if (encoded == null) {
+        throw new InvalidObjectException("Missing encoded package-url");
+      }
+      try {
+        return PackageUrlCodec.decode(encoded);
+      }
+      catch (RuntimeException e) {
+        throw invalidObject(e);
       }
     }
-    return buff;
   }
 
   /**
    * Parse package-url from given value.
    *
-   * Shortcut to {@code parser().parse(value)}
+   * Shortcut to {@code parser().parse(value)}; with a shared {@link PackageUrlParser#freeze() frozen} parser.
    */
   public static PackageUrl parse(final String value) {
-    return parser().parse(value);
+    return PARSER.parse(value);
   }
 
   /**
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Result of a batch of {@link PackageUrl} parse or build operations.
+ *
+ * Results keep the order of the inputs; each index holds either a value or the failure for that input.  Parse
+ * failures are recorded as {@link PackageUrlParseResult} with-out constructing exceptions.
+ *
+ * @see PackageUrlParser#parseAll(List)
+ * @see PackageUrlBuilder#buildAll(List)
+ * @since 1.3.0
+ */
+public final class PackageUrlBatch
+{
+  /**
+   * Minimum number of inputs processed by a single task.
+   */
+  private static final int MIN_TASK_SIZE = 256;
+
+  /**
+   * Tasks per available processor; when the executor does not report its parallelism.
+   */
+  private static final int TASKS_PER_PROCESSOR = 4;
+
+  private final PackageUrl[] values;
+
+  /**
+   * Failures; either {@link PackageUrlParseResult} or {@link RuntimeException}.
+   */
+  private final Object[] failures;
+
+  private PackageUrlBatch(final int size) {
+    this.values = new PackageUrl[size];
+    this.failures = new Object[size];
+  }
+
+  /**
+   * Parse given values with given parser on given executor.
+   */
+  static PackageUrlBatch parse(final List<String> values, final PackageUrlParser parser, final Executor executor) {
+    requireNonNull(values);
+    requireNonNull(parser);
+    PackageUrlBatch batch = new PackageUrlBatch(values.size());
+    batch.compute(index -> {
+      PackageUrlParseResult result = parser.tryParse(values.get(index));
+      if (result.isValid()) {
+        batch.values[index] = result.getPackageUrl();
+      }
+      else {
+        batch.failures[index] = result;
+      }
+    }, executor);
+    return batch;
+  }
+
+  /**
+   * Build and validate given builders on given executor.
+   */
+  static PackageUrlBatch build(final List<PackageUrlBuilder> builders, final Executor executor) {
+    requireNonNull(builders);
+    PackageUrlBatch batch = new PackageUrlBatch(builders.size());
+    batch.compute(index -> batch.values[index] = builders.get(index).build(), executor);
+    return batch;
+  }
+
+  /**
+   * Apply operation to {@code 0..size-1} on given executor; failures of each operation are collected.
+   *
+   * {@link ForkJoinPool} executors split the range recursively; other executors are given one task per chunk.
+   */
+  private void compute(final IntConsumer operation, final Executor executor) {
+    requireNonNull(executor);
+    int size = values.length;
+    if (executor instanceof ForkJoinPool) {
+      ForkJoinPool pool = (ForkJoinPool) executor;
+      int taskSize = Math.max(MIN_TASK_SIZE, size / (pool.getParallelism() * TASKS_PER_PROCESSOR));
+      pool.invoke(new Task(0, size, taskSize, operation));
+      return;
+    }
+
+    int tasks = Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR;
+    int taskSize = Math.max(MIN_TASK_SIZE, (size + tasks - 1) / tasks);
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[(size + taskSize - 1) / taskSize];
+    for (int i = 0; i < futures.length; i++) {
+      int start = i * taskSize;
+      int end = Math.min(size, start + taskSize);
+      futures[i] = CompletableFuture.runAsync(() -> apply(start, end, operation), executor);
+    }
+    try {
+      CompletableFuture.allOf(futures).join();
+    }
+    catch (CompletionException e) {
+      // failures of operations are collected; only errors, or failures of the executor, are propagated
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Apply operation to given range; failures are recorded per-index.
+   */
+  private void apply(final int start, final int end, final IntConsumer operation) {
+    for (int i = start; i < end; i++) {
+      try {
+        operation.accept(i);
+      }
+      catch (RuntimeException e) {
+        failures[i] = e;
+      }
+    }
+  }
+
+  /**
+   * Splits the range until it is no larger than the task size.
+   */
+  private class Task
+      extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final int start;
+
+    private final int end;
+
+    private final int taskSize;
+
+    private final IntConsumer operation;
+
+    Task(final int start, final int end, final int taskSize, final IntConsumer operation) {
+      this.start = start;
+      this.end = end;
+      this.taskSize = taskSize;
+      this.operation = operation;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= taskSize) {
+        apply(start, end, operation);
+      }
+      else {
+        int middle = (start + end) >>> 1;
+        invokeAll(new Task(start, middle, taskSize, operation), new Task(middle, end, taskSize, operation));
+      }
+    }
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public boolean isValid(final int index) {
+    return values[index] != null;
+  }
+
+  /**
+   * Value at given index; or {@code null} if it failed.
+   */
+  @Nullable
+  public PackageUrl get(final int index) {
+    return values[index];
+  }
+
+  /**
+   * Failure at given index; or {@code null} if valid.
+   *
+   * Exceptions for parse failures are created when requested, with-out stack trace.
+   */
+  @Nullable
+  public RuntimeException getError(final int index) {
+    Object failure = failures[index];
+    if (failure instanceof PackageUrlParseResult) {
+      return ((PackageUrlParseResult) failure).toException(false);
+    }
+    return (RuntimeException) failure;
+  }
+
+  /**
+   * Parse failure at given index; or {@code null} if valid, or if the failure was not a parse failure.
+   */
+  @Nullable
+  public PackageUrlParseResult getParseFailure(final int index) {
+    Object failure = failures[index];
+    return failure instanceof PackageUrlParseResult ? (PackageUrlParseResult) failure : null;
+  }
+
+  /**
+   * All values in input order; failed indexes are {@code null}.
+   */
+  public List<PackageUrl> getValues() {
+    return Collections.unmodifiableList(new AbstractList<PackageUrl>()
+    {
+      @Override
+      public PackageUrl get(final int index) {
+        return values[index];
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    });
+  }
+
+  public boolean hasFailures() {
+    for (Object failure : failures) {
+      if (failure != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Failures by index.
+   */
+  public SortedMap<Integer, RuntimeException> getFailures() {
+    SortedMap<Integer, RuntimeException> result = new TreeMap<>();
+    for (int i = 0; i < failures.length; i++) {
+      if (failures[i] != null) {
+        result.put(i, getError(i));
+      }
+    }
+    return Collections.unmodifiableSortedMap(result);
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bloom filter of {@link PackageUrl} canonical strings.
+ *
+ * A membership prefilter: {@link #mightContain(PackageUrl)} is always {@code true} for added entries, and is
+ * {@code false} for other entries except at about the configured false-positive rate.  Built with a {@link Builder},
+ * sized from the expected number of entries and the target false-positive rate.  Filters are immutable and safe for
+ * concurrent queries.
+ *
+ * Entries are keyed on their canonical {@link RenderFlavor#SCHEME} string; {@link Builder#versionless() versionless}
+ * filters are keyed on its {@code pkg:type/namespace/name} prefix, with-out version, qualifiers and subpath.  Keys are
+ * hashed with 128-bit MurmurHash3, and bit indexes are derived from the two halves by double hashing.
+ *
+ * Filters are written to and read from streams, to be reused by other processes:
+ *
+ * <pre>
+ * header : int magic, int version, byte flags, int hash count, long bit count
+ * bits   : long*
+ * </pre>
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlBloomFilter
+{
+  /**
+   * Current format version.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * {@code PUBF}.
+   */
+  private static final int MAGIC = 0x50554246;
+
+  private static final int VERSIONLESS = 0x1;
+
+  private final long[] bits;
+
+  private final long bitCount;
+
+  private final int hashCount;
+
+  private final boolean versionless;
+
+  private PackageUrlBloomFilter(final long[] bits, final int hashCount, final boolean versionless) {
+    this.bits = bits;
+    this.bitCount = bits.length * 64L;
+    this.hashCount = hashCount;
+    this.versionless = versionless;
+  }
+
+  /**
+   * Builder of filter sized for given number of entries and false-positive rate.
+   *
+   * @param expectedEntries   expected number of entries; more may be added at a higher false-positive rate
+   * @param falsePositiveRate target false-positive rate; greater than {@code 0} and less than {@code 1}
+   */
+  public static Builder builder(final long expectedEntries, final double falsePositiveRate) {
+    if (expectedEntries < 1) {
+      throw new IllegalArgumentException("Expected entries must be positive: " + expectedEntries);
+    }
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+    }
+    double ln2 = Math.log(2);
+    double bitCount = Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+    long words = (long) Math.ceil(bitCount / 64);
+    if (words > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Filter too large: " + (long) bitCount + " bits");
+    }
+    int hashCount = (int) Math.max(1, Math.round(words * 64 / (double) expectedEntries * ln2));
+    return new Builder(new long[(int) words], Math.min(hashCount, 255));
+  }
+
+  /**
+   * Check if given package-url might have been added; {@code false} if it was not.
+   */
+  public boolean mightContain(final PackageUrl purl) {
+    requireNonNull(purl);
+    return mightContain(purl.toString(RenderFlavor.SCHEME));
+  }
+
+  /**
+   * Check if given canonical {@link RenderFlavor#SCHEME} string might have been added; {@code false} if it was not.
+   *
+   * @throws IllegalArgumentException value is not ASCII, so not a canonical string
+   */
+  public boolean mightContain(final CharSequence canonical) {
+    requireNonNull(canonical);
+    long[] hash = new long[2];
+    Murmur3.hash128(canonical, keyLength(canonical, versionless), hash);
+    long combined = hash[0];
+    for (int i = 0; i < hashCount; i++) {
+      long index = (combined & Long.MAX_VALUE) % bitCount;
+      if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+        return false;
+      }
+      combined += hash[1];
+    }
+    return true;
+  }
+
+  /**
+   * Length of the key prefix of given canonical string; all of it, or up to the version for versionless filters.
+   */
+  private static int keyLength(final CharSequence canonical, final boolean versionless) {
+    int length = canonical.length();
+    for (int i = 0; i < length; i++) {
+      char c = canonical.charAt(i);
+      if (c >= 0x80) {
+        throw new IllegalArgumentException("Not a canonical package-url: " + canonical);
+      }
+      if (versionless && (c == '@' || c == '?' || c == '#')) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  public boolean isVersionless() {
+    return versionless;
+  }
+
+  public long bitCount() {
+    return bitCount;
+  }
+
+  public int hashCount() {
+    return hashCount;
+  }
+
+  /**
+   * Estimated false-positive rate of this filter, from the fraction of bits set.
+   */
+  public double expectedFalsePositiveRate() {
+    long set = 0;
+    for (long word : bits) {
+      set += Long.bitCount(word);
+    }
+    return Math.pow((double) set / bitCount, hashCount);
+  }
+
+  //
+  // Serialization
+  //
+
+  /**
+   * Write filter to given stream, which is not closed.
+   */
+  public void writeTo(final OutputStream output) throws IOException {
+    requireNonNull(output);
+    DataOutputStream out = new DataOutputStream(output);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeByte(versionless ? VERSIONLESS : 0);
+    out.writeInt(hashCount);
+    out.writeLong(bitCount);
+    byte[] buff = new byte[8 * 1024];
+    for (int i = 0; i < bits.length; ) {
+      int n = 0;
+      for (; n < buff.length && i < bits.length; i++) {
+        long word = bits[i];
+        for (int shift = 56; shift >= 0; shift -= 8) {
+          buff[n++] = (byte) (word >>> shift);
+        }
+      }
+      out.write(buff, 0, n);
+    }
+    out.flush();
+  }
+
+  /**
+   * Read filter from given stream, which is not closed.
+   */
+  public static PackageUrlBloomFilter readFrom(final InputStream input) throws IOException {
+    requireNonNull(input);
+    DataInputStream in = new DataInputStream(input);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a package-url bloom filter");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported package-url bloom filter version: " + version);
+    }
+    int flags = in.readUnsignedByte();
+    int hashCount = in.readInt();
+    long bitCount = in.readLong();
+    if ((flags & ~VERSIONLESS) != 0 || hashCount < 1 || hashCount > 255 || bitCount < 64 || bitCount % 64 != 0
+        || bitCount / 64 > Integer.MAX_VALUE - 8) {
+      throw new IOException("Corrupt package-url bloom filter");
+    }
+    long[] bits = new long[(int) (bitCount / 64)];
+    byte[] buff = new byte[8 * 1024];
+    for (int i = 0; i < bits.length; ) {
+      int n = Math.min(buff.length, (bits.length - i) * 8);
+      in.readFully(buff, 0, n);
+      for (int j = 0; j < n; i++) {
+        long word = 0;
+        for (int end = j + 8; j < end; j++) {
+          word = (word << 8) | (buff[j] & 0xFF);
+        }
+        bits[i] = word;
+      }
+    }
+    return new PackageUrlBloomFilter(bits, hashCount, (flags & VERSIONLESS) != 0);
+  }
+
+  /**
+   * {@link PackageUrlBloomFilter} builder.
+   */
+  @NotThreadSafe
+  public static final class Builder
+  {
+    private final long[] bits;
+
+    private final int hashCount;
+
+    private final long[] hash = new long[2];
+
+    private boolean versionless;
+
+    private boolean empty = true;
+
+    private boolean built;
+
+    private Builder(final long[] bits, final int hashCount) {
+      this.bits = bits;
+      this.hashCount = hashCount;
+    }
+
+    /**
+     * Key entries on type, namespace and name only; must be configured before entries are added.
+     */
+    public Builder versionless() {
+      checkState(empty, "Entries already added");
+      this.versionless = true;
+      return this;
+    }
+
+    public Builder add(final PackageUrl purl) {
+      requireNonNull(purl);
+      return add(purl.toString(RenderFlavor.SCHEME));
+    }
+
+    /**
+     * Add given canonical {@link RenderFlavor#SCHEME} string.
+     *
+     * @throws IllegalArgumentException value is not ASCII, so not a canonical string
+     */
+    public Builder add(final CharSequence canonical) {
+      requireNonNull(canonical);
+      checkState(!built, "Already built");
+      Murmur3.hash128(canonical, keyLength(canonical, versionless), hash);
+      long bitCount = bits.length * 64L;
+      long combined = hash[0];
+      for (int i = 0; i < hashCount; i++) {
+        long index = (combined & Long.MAX_VALUE) % bitCount;
+        bits[(int) (index >>> 6)] |= 1L << index;
+        combined += hash[1];
+      }
+      empty = false;
+      return this;
+    }
+
+    /**
+     * Build filter; the builder may not be used after.
+     */
+    public PackageUrlBloomFilter build() {
+      checkState(!built, "Already built");
+      built = true;
+      return new PackageUrlBloomFilter(bits, hashCount, versionless);
+    }
+
+    private static void checkState(final boolean state, final String message) {
+      if (!state) {
+        throw new IllegalStateException(message);
+      }
+    }
+  }
+}
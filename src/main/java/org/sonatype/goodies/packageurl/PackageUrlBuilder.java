@@ -12,13 +12,14 @@
  */
 package org.sonatype.goodies.packageurl;
 
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
 
 import static java.util.Objects.requireNonNull;
 import static org.sonatype.goodies.packageurl.PackageUrlParser.parseNamespace;
@@ -34,12 +35,20 @@ import static org.sonatype.goodies.packageurl.PackageUrlValidator.validateVersio
 /**
  * {@link PackageUrl} builder.
  *
+ * Builders may be {@link #reset() reset} and reused; built instances share the immutable components of the builder
+ * with-out copies, and mutable scratch state is retained for reuse.
+ *
  * @since 1.1.0
  */
 public class PackageUrlBuilder
 {
   private boolean typeSpecificTransformations = true;
 
+  private PackageUrlNormalizers normalizers = PackageUrlNormalizers.defaults();
+
+  @Nullable
+  private PackageUrlInterner interner;
+
   private String type;
 
   private List<String> namespace;
@@ -52,28 +61,51 @@ public class PackageUrlBuilder
 
   private List<String> subpath;
 
+  /**
+   * Reused mutable qualifiers; never held by built instances.
+   */
+  @Nullable
+  private Map<String, String> scratchQualifiers;
+
   public PackageUrlBuilder from(final PackageUrl purl) {
     requireNonNull(purl);
     this.type = purl.getType();
+    // segments and qualifiers are immutable; shared, and qualifiers copied only if mutated
     if (purl.getNamespace() != null) {
-      this.namespace = new ArrayList<>(purl.getNamespace());
+      this.namespace = purl.getNamespace();
     }
     this.name = purl.getName();
     this.version = purl.getVersion();
     if (purl.getQualifiers() != null) {
-      this.qualifiers = new LinkedHashMap<>(purl.getQualifiers());
+      this.qualifiers = purl.getQualifiers();
     }
     if (purl.getSubpath() != null) {
-      this.subpath = new ArrayList<>(purl.getSubpath());
+      this.subpath = purl.getSubpath();
     }
     return this;
   }
 
+  /**
+   * Clear all components; configuration is retained.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlBuilder reset() {
+    this.type = null;
+    this.namespace = null;
+    this.name = null;
+    this.version = null;
+    this.qualifiers = null;
+    this.subpath = null;
+    return this;
+  }
+
   /**
    * If enabled then the builder will make the changes defined in the Package URL spec to the namespace and name for specific types.
    *
    * By default this is enabled to maintain compliance with the spec.
    *
+   * @see PackageUrlNormalizers
    * @since 1.2.0
    */
   public PackageUrlBuilder typeSpecificTransformations(boolean enable) {
@@ -81,6 +113,27 @@ public class PackageUrlBuilder
     return this;
   }
 
+  /**
+   * Configure the {@link PackageUrlNormalizers} applied by {@link #typeSpecificTransformations(boolean) type-specific
+   * transformations}; defaults to {@link PackageUrlNormalizers#defaults()}.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlBuilder normalizers(final PackageUrlNormalizers normalizers) {
+    this.normalizers = requireNonNull(normalizers);
+    return this;
+  }
+
+  /**
+   * Configure {@link PackageUrlInterner} to canonicalize built instances; or {@code null} to disable.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlBuilder interner(@Nullable final PackageUrlInterner interner) {
+    this.interner = interner;
+    return this;
+  }
+
   public PackageUrlBuilder type(final String type) {
     this.type = type;
     return this;
@@ -106,14 +159,28 @@ public class PackageUrlBuilder
   }
 
   private Map<String, String> getQualifiers() {
-    if (qualifiers == null) {
-      qualifiers = new LinkedHashMap<>();
+    if (qualifiers == null || qualifiers instanceof QualifierMap) {
+      Map<String, String> scratch = scratchQualifiers;
+      if (scratch == null) {
+        scratchQualifiers = scratch = new LinkedHashMap<>();
+      }
+      else {
+        scratch.clear();
+      }
+      if (qualifiers != null) {
+        scratch.putAll(qualifiers);
+      }
+      qualifiers = scratch;
     }
     return qualifiers;
   }
 
   public PackageUrlBuilder qualifiers(final Map<String, String> qualifiers) {
-    if (qualifiers != null) {
+    if (qualifiers instanceof QualifierMap && this.qualifiers == null) {
+      // immutable; copied only if mutated
+      this.qualifiers = qualifiers;
+    }
+    else if (qualifiers != null) {
       for (Entry<String, String> entry : qualifiers.entrySet()) {
         qualifier(entry.getKey(), entry.getValue());
       }
@@ -156,6 +223,28 @@ public class PackageUrlBuilder
     return buildAndValidate(true);
   }
 
+  /**
+   * Build and validate all given builders in parallel on the {@link ForkJoinPool#commonPool() common pool}.
+   *
+   * @see #buildAll(List, Executor)
+   * @since 1.3.0
+   */
+  public static PackageUrlBatch buildAll(final List<PackageUrlBuilder> builders) {
+    return buildAll(builders, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Build and validate all given builders in parallel on given executor.
+   *
+   * Results keep the order of the builders; validation failures are collected per-index instead of thrown.
+   * {@link ForkJoinPool} executors split the builders recursively, other executors are given chunks of builders.
+   *
+   * @since 1.3.0
+   */
+  public static PackageUrlBatch buildAll(final List<PackageUrlBuilder> builders, final Executor executor) {
+    return PackageUrlBatch.build(builders, executor);
+  }
+
   /**
    * Build and optionally validate.
    *
@@ -173,43 +262,40 @@ public class PackageUrlBuilder
       validateSubpath(subpath);
     }
 
-    // FIXME: need to have some per-type transformation; which is unfortunate but spec requires some special handling per-type
+    return build(type, namespace, name, version, QualifierMap.normalize(qualifiers), subpath,
+        typeSpecificTransformations ? normalizers : null, interner);
+  }
+
+  /**
+   * Build from given components with-out validation; immutable components are owned by the result as-is.
+   *
+   * Type-specific transformations are applied when {@code normalizers} is given.
+   *
+   * @since 1.3.0
+   */
+  static PackageUrl build(final String type,
+                          @Nullable final List<String> namespace,
+                          final String name,
+                          @Nullable final String version,
+                          @Nullable final QualifierMap qualifiers,
+                          @Nullable final List<String> subpath,
+                          @Nullable final PackageUrlNormalizers normalizers,
+                          @Nullable final PackageUrlInterner interner)
+  {
     // FIXME: various type-specific transformation required by specification; very problematic
     // FIXME: https://github.com/package-url/purl-spec/issues/38
 
     List<String> correctedNamespace = namespace;
     String correctedName = name;
-    if (typeSpecificTransformations) {
-      switch (type) {
-        case "github":
-        case "bitbucket":
-          correctedNamespace = MoreStrings.lowerCase(namespace);
-          correctedName = MoreStrings.lowerCase(name);
-          break;
-
-        case "pypi":
-          correctedName = name.replace('_', '-');
-          correctedName = MoreStrings.lowerCase(correctedName);
-          break;
-      }
-    }
-
-    SortedMap<String, String> correctedQualifiers = null;
-    if (qualifiers != null) {
-      correctedQualifiers = new TreeMap<>();
-      for (Entry<String, String> entry : qualifiers.entrySet()) {
-        String key = MoreStrings.lowerCase(entry.getKey());
-        String value = entry.getValue();
-        if (MoreStrings.isBlank(value)) {
-          continue;
-        }
-        correctedQualifiers.put(key, value);
-      }
-      if (correctedQualifiers.isEmpty()) {
-        correctedQualifiers = null;
+    if (normalizers != null) {
+      PackageUrlNormalizer normalizer = normalizers.get(type);
+      if (normalizer != null) {
+        correctedNamespace = normalizer.normalizeNamespace(namespace);
+        correctedName = normalizer.normalizeName(name);
       }
     }
 
-    return new PackageUrl(type, correctedNamespace, correctedName, version, correctedQualifiers, subpath);
+    PackageUrl result = new PackageUrl(type, correctedNamespace, correctedName, version, qualifiers, subpath);
+    return interner != null ? interner.intern(result) : result;
   }
 }
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded concurrent cache of parsed {@link PackageUrl} instances keyed by input string.
+ *
+ * Configured on {@link PackageUrlParser#cache(PackageUrlCache)}; a cache may be shared by parsers, and entries
+ * parsed with and with-out {@link PackageUrlParser#typeSpecificTransformations(boolean) type-specific transformations},
+ * or with different {@link PackageUrlParser#normalizers(PackageUrlNormalizers) normalizers}, are kept apart.  Only
+ * successfully parsed values are cached.
+ *
+ * Entries are spread over lock-striped segments, each bounded and evicting by the configured {@link Eviction} policy.
+ *
+ * @since 1.3.0
+ */
+@ThreadSafe
+public final class PackageUrlCache
+{
+  /**
+   * Eviction policy.
+   */
+  public enum Eviction
+  {
+    /**
+     * Evict the least-recently used entry.
+     */
+    LRU,
+
+    /**
+     * Evict the least-frequently used of a random sample of entries; frequencies decay over time.
+     */
+    LFU
+  }
+
+  private static final int MAX_SEGMENTS = 16;
+
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final Segment[] segments;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  private PackageUrlCache(final int maxSize, final Eviction eviction) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Invalid max-size: " + maxSize);
+    }
+    requireNonNull(eviction);
+
+    // power-of-two segment count; small caches use fewer segments so eviction has enough entries to choose from
+    int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxSize / MIN_SEGMENT_SIZE)));
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      int segmentSize = maxSize / count + (i < maxSize % count ? 1 : 0);
+      segments[i] = eviction == Eviction.LRU ? new LruSegment(segmentSize) : new LfuSegment(segmentSize);
+    }
+  }
+
+  /**
+   * Create a cache with given max-size and eviction policy.
+   */
+  public static PackageUrlCache create(final int maxSize, final Eviction eviction) {
+    return new PackageUrlCache(maxSize, eviction);
+  }
+
+  /**
+   * Create a cache with given max-size and {@link Eviction#LRU} eviction.
+   */
+  public static PackageUrlCache lru(final int maxSize) {
+    return create(maxSize, Eviction.LRU);
+  }
+
+  /**
+   * Create a cache with given max-size and {@link Eviction#LFU} eviction.
+   */
+  public static PackageUrlCache lfu(final int maxSize) {
+    return create(maxSize, Eviction.LFU);
+  }
+
+  /**
+   * Cache key; values parsed with the default normalizers are keyed by the value itself.
+   */
+  private static Object key(final String value, @Nullable final PackageUrlNormalizers normalizers) {
+    if (normalizers == PackageUrlNormalizers.defaults()) {
+      return value;
+    }
+    return normalizers != null ? new NormalizedKey(value, normalizers) : new AsIsKey(value);
+  }
+
+  private Segment segment(final Object key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return segments[hash & (segments.length - 1)];
+  }
+
+  @Nullable
+  PackageUrl get(final String value, @Nullable final PackageUrlNormalizers normalizers) {
+    Object key = key(value, normalizers);
+    PackageUrl result = segment(key).get(key);
+    if (result != null) {
+      hits.increment();
+    }
+    else {
+      misses.increment();
+    }
+    return result;
+  }
+
+  void put(final String value, @Nullable final PackageUrlNormalizers normalizers, final PackageUrl purl) {
+    Object key = key(value, normalizers);
+    if (segment(key).put(key, purl)) {
+      evictions.increment();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Number of cached entries.
+   */
+  public int size() {
+    int result = 0;
+    for (Segment segment : segments) {
+      result += segment.size();
+    }
+    return result;
+  }
+
+  /**
+   * Remove all entries; statistics are retained.
+   */
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "size=" + size() +
+        ", hits=" + getHitCount() +
+        ", misses=" + getMissCount() +
+        ", evictions=" + getEvictionCount() +
+        '}';
+  }
+
+  /**
+   * Key for values parsed with-out type-specific transformations.
+   */
+  private static final class AsIsKey
+  {
+    private final String value;
+
+    private AsIsKey(final String value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof AsIsKey && value.equals(((AsIsKey) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return ~value.hashCode();
+    }
+  }
+
+  /**
+   * Key for values parsed with other than the default normalizers; normalizers are immutable and compared by identity.
+   */
+  private static final class NormalizedKey
+  {
+    private final String value;
+
+    private final PackageUrlNormalizers normalizers;
+
+    private NormalizedKey(final String value, final PackageUrlNormalizers normalizers) {
+      this.value = value;
+      this.normalizers = normalizers;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof NormalizedKey)) {
+        return false;
+      }
+      NormalizedKey other = (NormalizedKey) o;
+      return normalizers == other.normalizers && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(normalizers) + value.hashCode();
+    }
+  }
+
+  //
+  // Segments
+  //
+
+  /**
+   * Bounded cache segment; guarded by its own lock.
+   */
+  private abstract static class Segment
+  {
+    final int maxSize;
+
+    Segment(final int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    @Nullable
+    abstract PackageUrl get(Object key);
+
+    /**
+     * Add entry; returns {@code true} if an entry was evicted.
+     */
+    abstract boolean put(Object key, PackageUrl value);
+
+    abstract int size();
+
+    abstract void clear();
+  }
+
+  /**
+   * Least-recently used segment; access-ordered {@link LinkedHashMap}.
+   */
+  private static final class LruSegment
+      extends Segment
+  {
+    private final LinkedHashMap<Object, PackageUrl> entries;
+
+    private boolean evicted;
+
+    LruSegment(final int maxSize) {
+      super(maxSize);
+      this.entries = new LinkedHashMap<Object, PackageUrl>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, PackageUrl> eldest) {
+          evicted = size() > LruSegment.this.maxSize;
+          return evicted;
+        }
+      };
+    }
+
+    @Nullable
+    @Override
+    synchronized PackageUrl get(final Object key) {
+      return entries.get(key);
+    }
+
+    @Override
+    synchronized boolean put(final Object key, final PackageUrl value) {
+      evicted = false;
+      entries.put(key, value);
+      return evicted;
+    }
+
+    @Override
+    synchronized int size() {
+      return entries.size();
+    }
+
+    @Override
+    synchronized void clear() {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Least-frequently used segment; evicts the entry with the lowest access count of a random sample, or of all
+   * entries when there are no more than the sample size.
+   *
+   * Access counts are halved after every {@code 8 * maxSize} accesses so that formerly popular entries age out.
+   */
+  private static final class LfuSegment
+      extends Segment
+  {
+    private static final int SAMPLE_SIZE = 8;
+
+    private final Map<Object, Node> entries = new HashMap<>();
+
+    /**
+     * Dense list of entries for sampling; each node records its index.
+     */
+    private final List<Node> nodes = new ArrayList<>();
+
+    private final long agingPeriod;
+
+    private long accesses;
+
+    LfuSegment(final int maxSize) {
+      super(maxSize);
+      this.agingPeriod = 8L * maxSize;
+    }
+
+    private static final class Node
+    {
+      final Object key;
+
+      final PackageUrl value;
+
+      int count = 1;
+
+      int index;
+
+      Node(final Object key, final PackageUrl value) {
+        this.key = key;
+        this.value = value;
+      }
+    }
+
+    @Nullable
+    @Override
+    synchronized PackageUrl get(final Object key) {
+      Node node = entries.get(key);
+      if (node == null) {
+        return null;
+      }
+      if (node.count < Integer.MAX_VALUE) {
+        node.count++;
+      }
+      if (++accesses >= agingPeriod) {
+        accesses = 0;
+        for (Node each : nodes) {
+          each.count >>>= 1;
+        }
+      }
+      return node.value;
+    }
+
+    @Override
+    synchronized boolean put(final Object key, final PackageUrl value) {
+      if (entries.containsKey(key)) {
+        return false;
+      }
+      boolean evicted = false;
+      if (nodes.size() >= maxSize) {
+        remove(sampleVictim());
+        evicted = true;
+      }
+      Node node = new Node(key, value);
+      node.index = nodes.size();
+      nodes.add(node);
+      entries.put(key, node);
+      return evicted;
+    }
+
+    private Node sampleVictim() {
+      int size = nodes.size();
+      boolean all = size <= SAMPLE_SIZE;
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      Node victim = null;
+      for (int i = 0; i < (all ? size : SAMPLE_SIZE); i++) {
+        Node candidate = nodes.get(all ? i : random.nextInt(size));
+        if (victim == null || candidate.count < victim.count) {
+          victim = candidate;
+        }
+      }
+      return victim;
+    }
+
+    private void remove(final Node node) {
+      entries.remove(node.key);
+      Node last = nodes.remove(nodes.size() - 1);
+      if (last != node) {
+        last.index = node.index;
+        nodes.set(node.index, last);
+      }
+    }
+
+    @Override
+    synchronized int size() {
+      return nodes.size();
+    }
+
+    @Override
+    synchronized void clear() {
+      entries.clear();
+      nodes.clear();
+      accesses = 0;
+    }
+  }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact binary encoding of {@link PackageUrl}.
+ *
+ * Components are encoded unencoded, as UTF-8 with varint length prefixes; well-known types and qualifier keys are
+ * encoded as dictionary codes.  The format is versioned and stable across releases; encodings of a version are
+ * always decoded by later releases.
+ *
+ * <pre>
+ * version   : byte
+ * flags     : byte; namespace (0x1), version (0x2), qualifiers (0x4), subpath (0x8)
+ * type      : symbol
+ * namespace : varint count, string*
+ * name      : string
+ * version   : string
+ * qualifiers: varint count, (symbol key, string value)*; sorted by key
+ * subpath   : varint count, string*
+ *
+ * string    : varint length, UTF-8 bytes
+ * symbol    : varint code; 0 followed by string, or dictionary index + 1
+ * </pre>
+ *
+ * Encoding is lossless; values with unpaired surrogates, which have no UTF-8 encoding, fail with
+ * {@link IllegalArgumentException}.  Decoded values are validated as {@link PackageUrlBuilder#build()}; malformed
+ * encodings, including malformed UTF-8, fail with {@link IllegalArgumentException}.
+ *
+ * @since 1.3.0
+ */
+public final class PackageUrlCodec
+{
+  private PackageUrlCodec() {
+    // empty
+  }
+
+  /**
+   * Current format version.
+   */
+  public static final int VERSION = 1;
+
+  private static final int HAS_NAMESPACE = 0x1;
+
+  private static final int HAS_VERSION = 0x2;
+
+  private static final int HAS_QUALIFIERS = 0x4;
+
+  private static final int HAS_SUBPATH = 0x8;
+
+  /**
+   * Well-known types of format version 1; never reordered or changed.
+   */
+  private static final String[] TYPES = {
+      "alpm", "apk", "bitbucket", "bitnami", "cargo", "cocoapods", "composer", "conan", "conda", "cran", "deb",
+      "docker", "gem", "generic", "github", "golang", "hackage", "hex", "huggingface", "luarocks", "maven", "mlflow",
+      "npm", "nuget", "oci", "pub", "pypi", "qpkg", "rpm", "swid", "swift"
+  };
+
+  /**
+   * Well-known qualifier keys of format version 1; never reordered or changed.
+   */
+  private static final String[] KEYS = {
+      "arch", "checksum", "classifier", "distro", "download_url", "epoch", "extension", "file_name", "os", "platform",
+      "repository_url", "tag", "type", "vcs_url"
+  };
+
+  private static final Map<String, Integer> TYPE_CODES = codes(TYPES);
+
+  private static final Map<String, Integer> KEY_CODES = codes(KEYS);
+
+  private static Map<String, Integer> codes(final String[] symbols) {
+    Map<String, Integer> result = new HashMap<>(symbols.length * 2);
+    for (int i = 0; i < symbols.length; i++) {
+      result.put(symbols[i], i + 1);
+    }
+    return result;
+  }
+
+  //
+  // Encoding
+  //
+
+  /**
+   * Encode given package-url.
+   *
+   * @throws IllegalArgumentException if a component has unpaired surrogates
+   */
+  public static byte[] encode(final PackageUrl purl) {
+    byte[] result = new byte[encodedLength(purl)];
+    write(purl, ByteBuffer.wrap(result));
+    return result;
+  }
+
+  /**
+   * Encode given package-url to buffer.
+   *
+   * @throws BufferOverflowException if the buffer has insufficient space; nothing is written.
+   * @throws IllegalArgumentException if a component has unpaired surrogates; nothing is written.
+   */
+  public static void encode(final PackageUrl purl, final ByteBuffer buffer) {
+    requireNonNull(buffer);
+    if (buffer.remaining() < encodedLength(purl)) {
+      throw new BufferOverflowException();
+    }
+    write(purl, buffer);
+  }
+
+  /**
+   * Length in bytes of the encoding of given package-url.
+   *
+   * @throws IllegalArgumentException if a component has unpaired surrogates
+   */
+  public static int encodedLength(final PackageUrl purl) {
+    requireNonNull(purl);
+    int length = 2 + symbolLength(TYPE_CODES, purl.getType());
+    if (purl.getNamespace() != null) {
+      length += segmentsLength(purl.getNamespace());
+    }
+    length += stringLength(purl.getName());
+    if (purl.getVersion() != null) {
+      length += stringLength(purl.getVersion());
+    }
+    if (purl.getQualifiers() != null) {
+      QualifierMap qualifiers = (QualifierMap) purl.getQualifiers();
+      int size = qualifiers.size();
+      length += varintLength(size);
+      for (int i = 0; i < size; i++) {
+        length += symbolLength(KEY_CODES, qualifiers.keyAt(i)) + stringLength(qualifiers.valueAt(i));
+      }
+    }
+    if (purl.getSubpath() != null) {
+      length += segmentsLength(purl.getSubpath());
+    }
+    return length;
+  }
+
+  private static void write(final PackageUrl purl, final ByteBuffer buffer) {
+    int flags = 0;
+    if (purl.getNamespace() != null) {
+      flags |= HAS_NAMESPACE;
+    }
+    if (purl.getVersion() != null) {
+      flags |= HAS_VERSION;
+    }
+    if (purl.getQualifiers() != null) {
+      flags |= HAS_QUALIFIERS;
+    }
+    if (purl.getSubpath() != null) {
+      flags |= HAS_SUBPATH;
+    }
+    buffer.put((byte) VERSION);
+    buffer.put((byte) flags);
+
+    writeSymbol(buffer, TYPE_CODES, purl.getType());
+    if (purl.getNamespace() != null) {
+      writeSegments(buffer, purl.getNamespace());
+    }
+    writeString(buffer, purl.getName());
+    if (purl.getVersion() != null) {
+      writeString(buffer, purl.getVersion());
+    }
+    if (purl.getQualifiers() != null) {
+      QualifierMap qualifiers = (QualifierMap) purl.getQualifiers();
+      int size = qualifiers.size();
+      writeVarint(buffer, size);
+      for (int i = 0; i < size; i++) {
+        writeSymbol(buffer, KEY_CODES, qualifiers.keyAt(i));
+        writeString(buffer, qualifiers.valueAt(i));
+      }
+    }
+    if (purl.getSubpath() != null) {
+      writeSegments(buffer, purl.getSubpath());
+    }
+  }
+
+  private static int varintLength(final int value) {
+    int length = 1;
+    for (int v = value >>> 7; v != 0; v >>>= 7) {
+      length++;
+    }
+    return length;
+  }
+
+  private static void writeVarint(final ByteBuffer buffer, final int value) {
+    int v = value;
+    while ((v & ~0x7F) != 0) {
+      buffer.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    buffer.put((byte) v);
+  }
+
+  /**
+   * UTF-8 length of value; unpaired surrogates are rejected here, so {@link #writeString} need not check.
+   */
+  private static int utf8Length(final String value) {
+    int length = 0;
+    for (int i = 0, size = value.length(); i < size; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        length++;
+      }
+      else if (c < 0x800) {
+        length += 2;
+      }
+      else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        i++;
+      }
+      else if (Character.isSurrogate(c)) {
+        throw new IllegalArgumentException("Unpaired surrogate at index " + i + " of package-url component: " + value);
+      }
+      else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private static int stringLength(final String value) {
+    int length = utf8Length(value);
+    return varintLength(length) + length;
+  }
+
+  private static void writeString(final ByteBuffer buffer, final String value) {
+    writeVarint(buffer, utf8Length(value));
+    for (int i = 0, size = value.length(); i < size; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      }
+      else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+      else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, value.charAt(++i));
+        buffer.put((byte) (0xF0 | (cp >> 18)));
+        buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (cp & 0x3F)));
+      }
+      else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
+  private static int symbolLength(final Map<String, Integer> codes, final String value) {
+    Integer code = codes.get(value);
+    return code != null ? varintLength(code) : 1 + stringLength(value);
+  }
+
+  private static void writeSymbol(final ByteBuffer buffer, final Map<String, Integer> codes, final String value) {
+    Integer code = codes.get(value);
+    if (code != null) {
+      writeVarint(buffer, code);
+    }
+    else {
+      buffer.put((byte) 0);
+      writeString(buffer, value);
+    }
+  }
+
+  private static int segmentsLength(final List<String> segments) {
+    int size = segments.size();
+    int length = varintLength(size);
+    for (int i = 0; i < size; i++) {
+      length += stringLength(segments.get(i));
+    }
+    return length;
+  }
+
+  private static void writeSegments(final ByteBuffer buffer, final List<String> segments) {
+    int size = segments.size();
+    writeVarint(buffer, size);
+    for (int i = 0; i < size; i++) {
+      writeString(buffer, segments.get(i));
+    }
+  }
+
+  //
+  // Decoding
+  //
+
+  /**
+   * Decode package-url from given bytes, which must hold exactly one encoding.
+   */
+  public static PackageUrl decode(final byte[] bytes) {
+    requireNonNull(bytes);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    PackageUrl result = decode(buffer);
+    if (buffer.hasRemaining()) {
+      throw new IllegalArgumentException("Trailing bytes after encoded package-url: " + buffer.remaining());
+    }
+    return result;
+  }
+
+  /**
+   * Decode package-url from buffer position; the position is advanced past the encoding.
+   */
+  public static PackageUrl decode(final ByteBuffer buffer) {
+    requireNonNull(buffer);
+    try {
+      return read(buffer);
+    }
+    catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated encoded package-url", e);
+    }
+  }
+
+  private static PackageUrl read(final ByteBuffer buffer) {
+    int format = buffer.get() & 0xFF;
+    if (format != VERSION) {
+      throw new IllegalArgumentException("Unsupported encoded package-url version: " + format);
+    }
+    int flags = buffer.get() & 0xFF;
+    if ((flags & ~(HAS_NAMESPACE | HAS_VERSION | HAS_QUALIFIERS | HAS_SUBPATH)) != 0) {
+      throw new IllegalArgumentException("Invalid encoded package-url flags: " + flags);
+    }
+
+    String type = readSymbol(buffer, TYPES);
+    SegmentList namespace = (flags & HAS_NAMESPACE) != 0 ? readSegments(buffer) : null;
+    String name = readString(buffer);
+    String version = (flags & HAS_VERSION) != 0 ? readString(buffer) : null;
+    QualifierMap qualifiers = (flags & HAS_QUALIFIERS) != 0 ? readQualifiers(buffer) : null;
+    SegmentList subpath = (flags & HAS_SUBPATH) != 0 ? readSegments(buffer) : null;
+
+    PackageUrlValidator.validateType(type);
+    PackageUrlValidator.validateNamespace(namespace);
+    PackageUrlValidator.validateName(name);
+    PackageUrlValidator.validateVersion(version);
+    PackageUrlValidator.validateQualifiers(qualifiers);
+    PackageUrlValidator.validateSubpath(subpath);
+
+    return PackageUrl.ofUnmodifiable(type, namespace, name, version, qualifiers, subpath);
+  }
+
+  private static int readVarint(final ByteBuffer buffer) {
+    int result = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buffer.get();
+      result |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        if (result < 0) {
+          break;
+        }
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Invalid encoded package-url length");
+  }
+
+  private static String readString(final ByteBuffer buffer) {
+    int length = readVarint(buffer);
+    if (length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    int position = buffer.position();
+    boolean ascii = true;
+    for (int i = 0; i < length && ascii; i++) {
+      ascii = buffer.get(position + i) >= 0;
+    }
+    String result;
+    if (!ascii) {
+      ByteBuffer bytes = buffer.duplicate();
+      bytes.limit(position + length);
+      result = decodeUtf8(bytes);
+    }
+    else if (buffer.hasArray()) {
+      result = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.US_ASCII);
+    }
+    else {
+      byte[] bytes = new byte[length];
+      buffer.duplicate().get(bytes);
+      result = new String(bytes, StandardCharsets.US_ASCII);
+    }
+    buffer.position(position + length);
+    return result;
+  }
+
+  /**
+   * Strict decoding; {@link String} constructors replace malformed input.
+   */
+  private static String decodeUtf8(final ByteBuffer bytes) {
+    try {
+      return StandardCharsets.UTF_8.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT)
+          .decode(bytes)
+          .toString();
+    }
+    catch (CharacterCodingException e) {
+      throw new IllegalArgumentException("Malformed UTF-8 in encoded package-url", e);
+    }
+  }
+
+  private static String readSymbol(final ByteBuffer buffer, final String[] symbols) {
+    int code = readVarint(buffer);
+    if (code == 0) {
+      return readString(buffer);
+    }
+    if (code > symbols.length) {
+      throw new IllegalArgumentException("Invalid encoded package-url symbol: " + code);
+    }
+    return symbols[code - 1];
+  }
+
+  private static SegmentList readSegments(final ByteBuffer buffer) {
+    String[] segments = new String[readCount(buffer)];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = readString(buffer);
+    }
+    return SegmentList.of(segments);
+  }
+
+  /**
+   * Qualifiers must be normalized; keys lower-case and ascending, values non-blank.
+   */
+  private static QualifierMap readQualifiers(final ByteBuffer buffer) {
+    int size = readCount(buffer);
+    String[] entries = new String[size * 2];
+    for (int i = 0; i < size; i++) {
+      String key = readSymbol(buffer, KEYS);
+      String value = readString(buffer);
+      if (!key.equals(MoreStrings.lowerCase(key)) || MoreStrings.isBlank(value) ||
+          (i > 0 && entries[(i - 1) * 2].compareTo(key) >= 0)) {
+        throw new IllegalArgumentException("Invalid encoded package-url qualifier: " + key);
+      }
+      entries[i * 2] = key;
+      entries[i * 2 + 1] = value;
+    }
+    return QualifierMap.ofSorted(entries);
+  }
+
+  /**
+   * Element count; bounded by the remaining bytes, as each element is at least one byte.
+   */
+  private static int readCount(final ByteBuffer buffer) {
+    int count = readVarint(buffer);
+    if (count > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return count;
+  }
+}
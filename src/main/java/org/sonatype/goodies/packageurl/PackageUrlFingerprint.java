@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stable 128-bit {@link PackageUrl} fingerprint.
+ *
+ * Fingerprints are MurmurHash3 x64 128-bit hashes, with seed {@code 0}, of the canonical {@link RenderFlavor#SCHEME}
+ * string; {@link #ofVersionless(PackageUrl) versionless} fingerprints hash its {@code pkg:type/namespace/name} prefix
+ * only, so are equal for all versions of a package.  Values are stable across JVMs and releases.  Components are
+ * encoded directly into the hash with-out rendering the string, unless it has already been computed.
+ *
+ * 64-bit fingerprints are the {@link #getHigh() high} half of the 128-bit fingerprint.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlFingerprint
+{
+  private final long high;
+
+  private final long low;
+
+  private PackageUrlFingerprint(final long high, final long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * 128-bit fingerprint of given package-url.
+   */
+  public static PackageUrlFingerprint of(final PackageUrl purl) {
+    long[] hash = hash(purl, false);
+    return new PackageUrlFingerprint(hash[0], hash[1]);
+  }
+
+  /**
+   * 128-bit fingerprint of given package-url type, namespace and name.
+   */
+  public static PackageUrlFingerprint ofVersionless(final PackageUrl purl) {
+    long[] hash = hash(purl, true);
+    return new PackageUrlFingerprint(hash[0], hash[1]);
+  }
+
+  /**
+   * 64-bit fingerprint of given package-url.
+   */
+  public static long of64(final PackageUrl purl) {
+    return hash(purl, false)[0];
+  }
+
+  /**
+   * 64-bit fingerprint of given package-url type, namespace and name.
+   */
+  public static long ofVersionless64(final PackageUrl purl) {
+    return hash(purl, true)[0];
+  }
+
+  private static long[] hash(final PackageUrl purl, final boolean versionless) {
+    requireNonNull(purl);
+    Murmur3.Hasher hasher = new Murmur3.Hasher();
+    try {
+      if (versionless) {
+        purl.appendCoordinatesTo(hasher);
+      }
+      else {
+        purl.appendTo(hasher, RenderFlavor.SCHEME);
+      }
+    }
+    catch (IOException e) {
+      // hasher does not throw
+      throw new UncheckedIOException(e);
+    }
+    return hasher.finish();
+  }
+
+  /**
+   * First half of the hash; the 64-bit fingerprint.
+   */
+  public long getHigh() {
+    return high;
+  }
+
+  /**
+   * Second half of the hash.
+   */
+  public long getLow() {
+    return low;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PackageUrlFingerprint)) {
+      return false;
+    }
+    PackageUrlFingerprint that = (PackageUrlFingerprint) o;
+    return high == that.high && low == that.low;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) high;
+  }
+
+  /**
+   * 32 hex digits; high half first.
+   */
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", high, low);
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable sorted index of {@link PackageUrl}.
+ *
+ * Entries are held in one array, sorted by type, namespace segments, name and version; ties are ordered by their
+ * canonical string and equal entries are held once.  Queries are binary-searched ranges of the array, returned as
+ * unmodifiable views.  Instances are safe for concurrent reads with-out locking.
+ *
+ * Versions are ordered as strings; ranges are of string order, not of type-specific version semantics.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlIndex
+{
+  /**
+   * Index sort order; absent namespace and version order first.
+   */
+  public static final Comparator<PackageUrl> ORDER = PackageUrlIndex::compare;
+
+  private final PackageUrl[] entries;
+
+  private PackageUrlIndex(final PackageUrl[] entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Build index of given package-urls.
+   */
+  public static PackageUrlIndex of(final Stream<PackageUrl> purls) {
+    requireNonNull(purls);
+    return of(purls.toArray(PackageUrl[]::new));
+  }
+
+  /**
+   * Build index of given package-urls.
+   */
+  public static PackageUrlIndex copyOf(final Iterable<PackageUrl> purls) {
+    requireNonNull(purls);
+    return of(StreamSupport.stream(purls.spliterator(), false));
+  }
+
+  /**
+   * Sort and de-duplicate given array, which is owned by the index.
+   */
+  private static PackageUrlIndex of(final PackageUrl[] purls) {
+    for (PackageUrl purl : purls) {
+      requireNonNull(purl);
+    }
+    Arrays.parallelSort(purls, ORDER);
+    int size = 0;
+    for (int i = 0; i < purls.length; i++) {
+      if (size == 0 || !purls[size - 1].equals(purls[i])) {
+        purls[size++] = purls[i];
+      }
+    }
+    return new PackageUrlIndex(size == purls.length ? purls : Arrays.copyOf(purls, size));
+  }
+
+  public int size() {
+    return entries.length;
+  }
+
+  public boolean isEmpty() {
+    return entries.length == 0;
+  }
+
+  /**
+   * All entries in index order.
+   */
+  public List<PackageUrl> entries() {
+    return new Range(entries, 0, entries.length);
+  }
+
+  public boolean contains(final PackageUrl purl) {
+    requireNonNull(purl);
+    int index = Arrays.binarySearch(entries, purl, ORDER);
+    return index >= 0;
+  }
+
+  /**
+   * Entries of given type.
+   */
+  public List<PackageUrl> ofType(final String type) {
+    requireNonNull(type);
+    return range(entry -> entry.getType().compareTo(type));
+  }
+
+  /**
+   * Entries of given type whose namespace starts with given segments; an empty prefix matches all namespaces.
+   */
+  public List<PackageUrl> withNamespacePrefix(final String type, final List<String> prefix) {
+    requireNonNull(type);
+    requireNonNull(prefix);
+    return range(entry -> {
+      int result = entry.getType().compareTo(type);
+      return result != 0 ? result : compareSegments(entry.getNamespace(), prefix, true);
+    });
+  }
+
+  /**
+   * Entries of given type and namespace; or with-out namespace if {@code null}.
+   */
+  public List<PackageUrl> inNamespace(final String type, @Nullable final List<String> namespace) {
+    requireNonNull(type);
+    return range(entry -> {
+      int result = entry.getType().compareTo(type);
+      return result != 0 ? result : compareSegments(entry.getNamespace(), namespace, false);
+    });
+  }
+
+  /**
+   * All versions of given type, namespace and name; in version order.
+   */
+  public List<PackageUrl> versionsOf(final String type, @Nullable final List<String> namespace, final String name) {
+    requireNonNull(type);
+    requireNonNull(name);
+    return range(entry -> compareCoordinates(entry, type, namespace, name));
+  }
+
+  /**
+   * Versions of given type, namespace and name within given range; bounds are {@code from} inclusive and {@code to}
+   * exclusive, and unbounded when {@code null}.
+   */
+  public List<PackageUrl> versionRange(final String type,
+                                       @Nullable final List<String> namespace,
+                                       final String name,
+                                       @Nullable final String from,
+                                       @Nullable final String to)
+  {
+    requireNonNull(type);
+    requireNonNull(name);
+    return range(entry -> {
+      int result = compareCoordinates(entry, type, namespace, name);
+      if (result != 0) {
+        return result;
+      }
+      String version = entry.getVersion();
+      if (from != null && (version == null || version.compareTo(from) < 0)) {
+        return -1;
+      }
+      if (to != null && version != null && version.compareTo(to) >= 0) {
+        return 1;
+      }
+      return 0;
+    });
+  }
+
+  /**
+   * Contiguous range of entries for which given function is {@code 0}; it must be negative before and positive after
+   * the range.
+   */
+  private List<PackageUrl> range(final ToIntFunction<PackageUrl> position) {
+    int from = search(position, false);
+    int to = search(position, true);
+    return from == to ? Collections.emptyList() : new Range(entries, from, to);
+  }
+
+  /**
+   * Index of first entry where function is non-negative; or if {@code after} positive.
+   */
+  private int search(final ToIntFunction<PackageUrl> position, final boolean after) {
+    int low = 0;
+    int high = entries.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int result = position.applyAsInt(entries[mid]);
+      if (result < 0 || (after && result == 0)) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  //
+  // Ordering
+  //
+
+  private static int compare(final PackageUrl a, final PackageUrl b) {
+    if (a == b) {
+      return 0;
+    }
+    int result = compareCoordinates(a, b.getType(), b.getNamespace(), b.getName());
+    if (result != 0) {
+      return result;
+    }
+    result = compareNullable(a.getVersion(), b.getVersion());
+    if (result != 0) {
+      return result;
+    }
+    return a.toString(RenderFlavor.SCHEME).compareTo(b.toString(RenderFlavor.SCHEME));
+  }
+
+  private static int compareCoordinates(final PackageUrl entry,
+                                        final String type,
+                                        @Nullable final List<String> namespace,
+                                        final String name)
+  {
+    int result = entry.getType().compareTo(type);
+    if (result != 0) {
+      return result;
+    }
+    result = compareSegments(entry.getNamespace(), namespace, false);
+    if (result != 0) {
+      return result;
+    }
+    return entry.getName().compareTo(name);
+  }
+
+  /**
+   * Compare segments lexicographically; absent is empty.  In prefix mode segments starting with given segments are
+   * equal.
+   */
+  private static int compareSegments(@Nullable final List<String> segments,
+                                     @Nullable final List<String> other,
+                                     final boolean prefix)
+  {
+    int size = segments != null ? segments.size() : 0;
+    int otherSize = other != null ? other.size() : 0;
+    for (int i = 0, n = Math.min(size, otherSize); i < n; i++) {
+      int result = segments.get(i).compareTo(other.get(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    if (prefix && size >= otherSize) {
+      return 0;
+    }
+    return Integer.compare(size, otherSize);
+  }
+
+  private static int compareNullable(@Nullable final String a, @Nullable final String b) {
+    if (Objects.equals(a, b)) {
+      return 0;
+    }
+    if (a == null) {
+      return -1;
+    }
+    if (b == null) {
+      return 1;
+    }
+    return a.compareTo(b);
+  }
+
+  /**
+   * Unmodifiable view of an entry range.
+   */
+  private static final class Range
+      extends AbstractList<PackageUrl>
+      implements RandomAccess
+  {
+    private final PackageUrl[] entries;
+
+    private final int from;
+
+    private final int to;
+
+    Range(final PackageUrl[] entries, final int from, final int to) {
+      this.entries = entries;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public PackageUrl get(final int index) {
+      if (index < 0 || index >= to - from) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+      }
+      return entries[from + index];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+}
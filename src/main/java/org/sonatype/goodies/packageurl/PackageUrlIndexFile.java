@@ -0,0 +1,1073 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Memory-mapped index file of {@link PackageUrl} to record id.
+ *
+ * Files are written by {@link Writer} and are immutable.  Entries are sorted by their canonical
+ * {@link RenderFlavor#SCHEME} string and stored in blocks of {@value #BLOCK_ENTRIES} front-coded entries, each holding
+ * only the part of its string not shared with the previous entry of the block.  A table of block offsets follows the
+ * blocks.
+ *
+ * <pre>
+ * header : int magic, int version, long count, int block count, int region shift, long table offset
+ * block  : entry*
+ * entry  : varint shared length, varint suffix length, suffix bytes, varint id
+ * table  : long block offset*
+ * </pre>
+ *
+ * Opened files are mapped with {@link FileChannel#map}; lookups binary-search the first entries of blocks and scan one
+ * block, comparing the canonical string of the given package-url with the mapped bytes with-out decoding entries or
+ * building {@link PackageUrl} instances.  Blocks never cross a region boundary, so files larger than a single mapping
+ * are mapped as several regions.  Canonical strings are ASCII, so their byte order is their string order.
+ *
+ * Instances are safe for concurrent use; the mappings are released when the instance is garbage collected.
+ *
+ * @since 1.3.0
+ */
+@ThreadSafe
+public final class PackageUrlIndexFile
+{
+  /**
+   * Current format version.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * Entries per block.
+   */
+  public static final int BLOCK_ENTRIES = 32;
+
+  /**
+   * {@code PUIX}.
+   */
+  private static final int MAGIC = 0x50554958;
+
+  private static final int HEADER_SIZE = 32;
+
+  /**
+   * Default region size of 1GiB.
+   */
+  private static final int REGION_SHIFT = 30;
+
+  private final long count;
+
+  private final int blockCount;
+
+  private final int regionShift;
+
+  private final ByteBuffer[] regions;
+
+  private final LongBuffer blocks;
+
+  private PackageUrlIndexFile(final long count,
+                              final int blockCount,
+                              final int regionShift,
+                              final ByteBuffer[] regions,
+                              final LongBuffer blocks)
+  {
+    this.count = count;
+    this.blockCount = blockCount;
+    this.regionShift = regionShift;
+    this.regions = regions;
+    this.blocks = blocks;
+  }
+
+  /**
+   * Open and map given index file.
+   */
+  public static PackageUrlIndexFile open(final Path file) throws IOException {
+    requireNonNull(file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_SIZE) {
+        throw new IOException("Not a package-url index file: " + file);
+      }
+      ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (header.getInt(0) != MAGIC) {
+        throw new IOException("Not a package-url index file: " + file);
+      }
+      int version = header.getInt(4);
+      if (version != VERSION) {
+        throw new IOException("Unsupported package-url index file version: " + version);
+      }
+      long count = header.getLong(8);
+      int blockCount = header.getInt(16);
+      int regionShift = header.getInt(20);
+      long tableOffset = header.getLong(24);
+      if (count < 0 || blockCount != blockCount(count) || regionShift < 8 || regionShift > REGION_SHIFT
+          || tableOffset < HEADER_SIZE || tableOffset + blockCount * 8L != length) {
+        throw new IOException("Corrupt package-url index file: " + file);
+      }
+
+      long regionSize = 1L << regionShift;
+      ByteBuffer[] regions = new ByteBuffer[(int) ((tableOffset + regionSize - 1) >>> regionShift)];
+      for (int i = 0; i < regions.length; i++) {
+        long start = (long) i << regionShift;
+        regions[i] = channel.map(MapMode.READ_ONLY, start, Math.min(regionSize, tableOffset - start));
+      }
+      LongBuffer blocks = channel.map(MapMode.READ_ONLY, tableOffset, blockCount * 8L).asLongBuffer();
+      return new PackageUrlIndexFile(count, blockCount, regionShift, regions, blocks);
+    }
+  }
+
+  private static int blockCount(final long count) {
+    long result = (count + BLOCK_ENTRIES - 1) / BLOCK_ENTRIES;
+    if (result > Integer.MAX_VALUE / 8) {
+      throw new IllegalArgumentException("Too many entries: " + count);
+    }
+    return (int) result;
+  }
+
+  /**
+   * Write index file of given package-urls; record ids are their encounter order, from {@code 0}.
+   *
+   * @see Writer
+   */
+  public static void write(final Path file, final Stream<PackageUrl> purls) throws IOException {
+    requireNonNull(file);
+    requireNonNull(purls);
+    Writer writer = new Writer();
+    Iterator<PackageUrl> iterator = purls.iterator();
+    for (long id = 0; iterator.hasNext(); id++) {
+      writer.add(iterator.next(), id);
+    }
+    writer.write(file);
+  }
+
+  public long size() {
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  public boolean contains(final PackageUrl purl) {
+    return find(purl) != -1;
+  }
+
+  /**
+   * Record id of given package-url, or {@code -1} if not in the index.
+   */
+  public long find(final PackageUrl purl) {
+    requireNonNull(purl);
+    return find(purl.toString(RenderFlavor.SCHEME));
+  }
+
+  /**
+   * Record id of given canonical string, or {@code -1} if not in the index.
+   */
+  long find(final CharSequence key) {
+    int block = floorBlock(key);
+    if (block < 0) {
+      return -1;
+    }
+    Input input = block(block);
+    int keyLength = key.length();
+    // length of the prefix shared by the key and the previous entry, which is less than the key
+    int matched = 0;
+    for (int i = 0, entries = entries(block); i < entries; i++) {
+      int shared = input.varint();
+      int length = input.varint();
+      if (shared < matched) {
+        // entry differs from the previous entry before the key does, so is greater than the key
+        return -1;
+      }
+      if (shared == matched) {
+        int j = 0;
+        while (j < length && matched + j < keyLength && input.byteAt(j) == key.charAt(matched + j)) {
+          j++;
+        }
+        if (j == length && matched + j == keyLength) {
+          input.skip(length);
+          return input.varlong();
+        }
+        if (j < length && (matched + j == keyLength || input.byteAt(j) > key.charAt(matched + j))) {
+          return -1;
+        }
+        matched += j;
+      }
+      input.skip(length);
+      input.varlong();
+    }
+    return -1;
+  }
+
+  /**
+   * Index of the last block whose first entry is not greater than given key, or {@code -1} if none.
+   */
+  private int floorBlock(final CharSequence key) {
+    int low = 0;
+    int high = blockCount - 1;
+    int result = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (compareFirst(mid, key) <= 0) {
+        result = mid;
+        low = mid + 1;
+      }
+      else {
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compare first entry of given block with key.
+   */
+  private int compareFirst(final int block, final CharSequence key) {
+    Input input = block(block);
+    input.varint();
+    int length = input.varint();
+    int keyLength = key.length();
+    for (int i = 0, n = Math.min(length, keyLength); i < n; i++) {
+      int cmp = Integer.compare(input.byteAt(i), key.charAt(i));
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(length, keyLength);
+  }
+
+  private Input block(final int block) {
+    long offset = blocks.get(block);
+    return new Input(regions[(int) (offset >>> regionShift)], (int) (offset & ((1L << regionShift) - 1)));
+  }
+
+  private int entries(final int block) {
+    return (int) Math.min(BLOCK_ENTRIES, count - (long) block * BLOCK_ENTRIES);
+  }
+
+  //
+  // Scans
+  //
+
+  /**
+   * All entries in index order.
+   */
+  public Stream<Record> entries() {
+    return withPrefix("");
+  }
+
+  /**
+   * Entries whose canonical string starts with given prefix, in index order.
+   */
+  public Stream<Record> withPrefix(final String prefix) {
+    requireNonNull(prefix);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Cursor(prefix),
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+  }
+
+  /**
+   * Entries of given type.
+   */
+  public Stream<Record> ofType(final String type) {
+    requireNonNull(type);
+    return withPrefix(typePrefix(type).toString());
+  }
+
+  /**
+   * Entries of given type whose namespace starts with given segments; an empty prefix matches all namespaces.
+   */
+  public Stream<Record> withNamespacePrefix(final String type, final List<String> prefix) {
+    requireNonNull(type);
+    requireNonNull(prefix);
+    StringBuilder buff = typePrefix(type);
+    for (String segment : prefix) {
+      buff.append(PercentEncoding.encodeSegment(segment)).append('/');
+    }
+    return withPrefix(buff.toString());
+  }
+
+  private static StringBuilder typePrefix(final String type) {
+    return new StringBuilder().append(PackageUrl.SCHEME).append(':').append(MoreStrings.lowerCase(type)).append('/');
+  }
+
+  /**
+   * Index entry.
+   */
+  @Immutable
+  public static final class Record
+  {
+    private final String canonical;
+
+    private final long id;
+
+    private Record(final String canonical, final long id) {
+      this.canonical = canonical;
+      this.id = id;
+    }
+
+    /**
+     * Canonical {@link RenderFlavor#SCHEME} string.
+     */
+    public String getCanonical() {
+      return canonical;
+    }
+
+    public long getId() {
+      return id;
+    }
+
+    public PackageUrl toPackageUrl() {
+      return PackageUrl.parse(canonical);
+    }
+
+    @Override
+    public String toString() {
+      return canonical + "=" + id;
+    }
+  }
+
+  /**
+   * Iterates entries from the first not less than the prefix, while they start with the prefix.
+   */
+  private final class Cursor
+      implements Iterator<Record>
+  {
+    private final String prefix;
+
+    private int block;
+
+    private int remaining;
+
+    @Nullable
+    private Input input;
+
+    private byte[] key = new byte[64];
+
+    @Nullable
+    private Record next;
+
+    private boolean done;
+
+    Cursor(final String prefix) {
+      this.prefix = prefix;
+      this.block = Math.max(floorBlock(prefix), 0) - 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !done) {
+        next = read();
+        done = next == null;
+      }
+      return next != null;
+    }
+
+    @Override
+    public Record next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Record result = next;
+      next = null;
+      return result;
+    }
+
+    @Nullable
+    private Record read() {
+      while (true) {
+        if (remaining == 0) {
+          if (++block >= blockCount) {
+            return null;
+          }
+          input = block(block);
+          remaining = entries(block);
+        }
+        remaining--;
+        int shared = input.varint();
+        int length = shared + input.varint();
+        if (length > key.length) {
+          key = Arrays.copyOf(key, Math.max(length, key.length * 2));
+        }
+        input.read(key, shared, length - shared);
+        long id = input.varlong();
+
+        int cmp = comparePrefix(length);
+        if (cmp > 0) {
+          return null;
+        }
+        if (cmp == 0) {
+          return new Record(new String(key, 0, length, StandardCharsets.US_ASCII), id);
+        }
+      }
+    }
+
+    /**
+     * Compare current key with prefix; {@code 0} when the key starts with the prefix.
+     */
+    private int comparePrefix(final int length) {
+      int prefixLength = prefix.length();
+      for (int i = 0, n = Math.min(length, prefixLength); i < n; i++) {
+        int cmp = Integer.compare(key[i] & 0xFF, prefix.charAt(i));
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+      return length < prefixLength ? -1 : 0;
+    }
+  }
+
+  /**
+   * Reads from a mapped region with absolute gets, so regions are shared by concurrent readers.
+   */
+  private static final class Input
+  {
+    private final ByteBuffer buffer;
+
+    private int position;
+
+    Input(final ByteBuffer buffer, final int position) {
+      this.buffer = buffer;
+      this.position = position;
+    }
+
+    int byteAt(final int offset) {
+      return buffer.get(position + offset) & 0xFF;
+    }
+
+    void skip(final int length) {
+      position += length;
+    }
+
+    void read(final byte[] bytes, final int offset, final int length) {
+      for (int i = 0; i < length; i++) {
+        bytes[offset + i] = buffer.get(position + i);
+      }
+      position += length;
+    }
+
+    int varint() {
+      long result = varlong();
+      if (result > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Corrupt package-url index entry");
+      }
+      return (int) result;
+    }
+
+    long varlong() {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = buffer.get(position++);
+        result |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return result;
+        }
+      }
+      throw new IllegalStateException("Corrupt package-url index entry");
+    }
+  }
+
+  //
+  // Writing
+  //
+
+  /**
+   * Index file writer.
+   *
+   * Added entries are buffered up to the {@link #runSize(int) run size}, then sorted and spilled to a temporary run
+   * file.  {@link #write(Path) Writing} merges the sorted runs and streams entries straight into blocks, so only one
+   * run and the block offsets are held in memory, however many entries are added.  Each package-url may be added once.
+   *
+   * Run files are deleted, and the writer emptied, when written.
+   */
+  @NotThreadSafe
+  public static final class Writer
+  {
+    /**
+     * Default entries sorted in memory per run.
+     */
+    public static final int DEFAULT_RUN_SIZE = 1 << 18;
+
+    /**
+     * Most runs merged at once; more runs are first merged into larger runs, to bound open files and buffers.
+     */
+    private static final int MERGE_WIDTH = 64;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private int runSize = DEFAULT_RUN_SIZE;
+
+    @Nullable
+    private Path directory;
+
+    private int regionShift = REGION_SHIFT;
+
+    /**
+     * Add package-url with given non-negative record id.
+     *
+     * I/O failures spilling a run are thrown as {@link UncheckedIOException}.
+     */
+    public Writer add(final PackageUrl purl, final long id) {
+      requireNonNull(purl);
+      if (id < 0) {
+        throw new IllegalArgumentException("Negative record id: " + id);
+      }
+      entries.add(new Entry(purl.toString(RenderFlavor.SCHEME), id));
+      if (entries.size() >= runSize) {
+        try {
+          spill();
+        }
+        catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Entries sorted in memory before being spilled to a run file; defaults to {@value #DEFAULT_RUN_SIZE}.
+     */
+    public Writer runSize(final int runSize) {
+      if (runSize < 1) {
+        throw new IllegalArgumentException("Invalid run size: " + runSize);
+      }
+      this.runSize = runSize;
+      return this;
+    }
+
+    /**
+     * Directory of run files; defaults to the default temporary-file directory.
+     */
+    public Writer tempDirectory(@Nullable final Path directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    /**
+     * Region size as a power of two; smaller than the default only to exercise region boundaries.
+     */
+    Writer regionShift(final int regionShift) {
+      this.regionShift = regionShift;
+      return this;
+    }
+
+    /**
+     * Write index file of added entries, replacing any existing file.
+     *
+     * @throws IllegalArgumentException a package-url was added more than once; the file is deleted
+     */
+    public void write(final Path file) throws IOException {
+      requireNonNull(file);
+      try {
+        if (runs.isEmpty()) {
+          writeIndex(file, new SortedEntries(sort()));
+          return;
+        }
+        spill();
+        while (runs.size() > MERGE_WIDTH) {
+          Path run = createRun();
+          List<Path> merged = runs.subList(0, MERGE_WIDTH);
+          try (MergedRuns source = new MergedRuns(merged)) {
+            writeRun(run, source);
+          }
+          for (Path each : merged) {
+            Files.deleteIfExists(each);
+          }
+          merged.clear();
+        }
+        try (MergedRuns source = new MergedRuns(runs)) {
+          writeIndex(file, source);
+        }
+      }
+      finally {
+        entries.clear();
+        for (Path run : runs) {
+          Files.deleteIfExists(run);
+        }
+        runs.clear();
+      }
+    }
+
+    private Entry[] sort() {
+      Entry[] sorted = entries.toArray(new Entry[0]);
+      entries.clear();
+      Arrays.parallelSort(sorted, (a, b) -> a.key.compareTo(b.key));
+      return sorted;
+    }
+
+    private void spill() throws IOException {
+      if (!entries.isEmpty()) {
+        writeRun(createRun(), new SortedEntries(sort()));
+      }
+    }
+
+    private Path createRun() throws IOException {
+      Path run = directory != null
+          ? Files.createTempFile(directory, "purls", ".run")
+          : Files.createTempFile("purls", ".run");
+      runs.add(run);
+      return run;
+    }
+
+    /**
+     * Run entry: varint key length, key bytes, varint id.
+     */
+    private static void writeRun(final Path run, final Source source) throws IOException {
+      try (FileChannel channel = FileChannel.open(run,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+      {
+        Output out = new Output(channel);
+        while (source.next()) {
+          out.putVarint(source.length);
+          out.put(source.key, 0, source.length);
+          out.putVarint(source.id);
+        }
+        out.flush();
+      }
+    }
+
+    private void writeIndex(final Path file, final Source source) throws IOException {
+      try (FileChannel channel = FileChannel.open(file,
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+      {
+        Output out = new Output(channel);
+        out.pad(HEADER_SIZE);
+        Blocks blocks = new Blocks(out, regionShift);
+        byte[] previous = new byte[64];
+        int previousLength = -1;
+        long count = 0;
+        while (source.next()) {
+          int shared = previousLength < 0 ? 0 : shared(previous, previousLength, source.key, source.length);
+          if (shared == previousLength && shared == source.length) {
+            throw new IllegalArgumentException(
+                "Duplicate package-url: " + new String(source.key, 0, source.length, StandardCharsets.US_ASCII));
+          }
+          blocks.add(shared, source.key, source.length, source.id);
+          if (source.length > previous.length) {
+            previous = Arrays.copyOf(previous, Math.max(source.length, previous.length * 2));
+          }
+          System.arraycopy(source.key, shared, previous, shared, source.length - shared);
+          previousLength = source.length;
+          count++;
+        }
+        blocks.flush();
+        int blockCount = blockCount(count);
+
+        long tableOffset = out.position();
+        for (int i = 0; i < blockCount; i++) {
+          out.putLong(blocks.offsets[i]);
+        }
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(count).putInt(blockCount).putInt(regionShift)
+            .putLong(tableOffset).flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+      }
+      catch (IOException | RuntimeException e) {
+        Files.deleteIfExists(file);
+        throw e;
+      }
+    }
+
+    private static int shared(final byte[] a, final int aLength, final byte[] b, final int bLength) {
+      int n = Math.min(aLength, bLength);
+      int i = 0;
+      while (i < n && a[i] == b[i]) {
+        i++;
+      }
+      return i;
+    }
+  }
+
+  private static final class Entry
+  {
+    private final String key;
+
+    private final long id;
+
+    Entry(final String key, final long id) {
+      this.key = key;
+      this.id = id;
+    }
+  }
+
+  /**
+   * Sorted entries, read one at a time into a reused key buffer.
+   */
+  private abstract static class Source
+      implements Closeable
+  {
+    byte[] key = new byte[64];
+
+    int length;
+
+    long id;
+
+    abstract boolean next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+      // empty
+    }
+  }
+
+  private static final class SortedEntries
+      extends Source
+  {
+    private final Entry[] entries;
+
+    private int index;
+
+    SortedEntries(final Entry[] entries) {
+      this.entries = entries;
+    }
+
+    @Override
+    boolean next() {
+      if (index == entries.length) {
+        return false;
+      }
+      Entry entry = entries[index];
+      entries[index++] = null;
+      length = entry.key.length();
+      if (length > key.length) {
+        key = Arrays.copyOf(key, Math.max(length, key.length * 2));
+      }
+      for (int i = 0; i < length; i++) {
+        key[i] = (byte) entry.key.charAt(i);
+      }
+      id = entry.id;
+      return true;
+    }
+  }
+
+  /**
+   * Reads a run file through a buffer.
+   */
+  private static final class RunInput
+      extends Source
+  {
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+
+    RunInput(final Path run) throws IOException {
+      this.channel = FileChannel.open(run, StandardOpenOption.READ);
+      buffer.flip();
+    }
+
+    @Override
+    boolean next() throws IOException {
+      if (!buffer.hasRemaining() && !fill()) {
+        return false;
+      }
+      length = (int) varlong();
+      if (length > key.length) {
+        key = Arrays.copyOf(key, Math.max(length, key.length * 2));
+      }
+      for (int offset = 0; offset < length; ) {
+        if (!buffer.hasRemaining() && !fill()) {
+          throw new EOFException();
+        }
+        int n = Math.min(buffer.remaining(), length - offset);
+        buffer.get(key, offset, n);
+        offset += n;
+      }
+      id = varlong();
+      return true;
+    }
+
+    private long varlong() throws IOException {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        if (!buffer.hasRemaining() && !fill()) {
+          throw new EOFException();
+        }
+        byte b = buffer.get();
+        result |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return result;
+        }
+      }
+      throw new IOException("Corrupt package-url index run");
+    }
+
+    private boolean fill() throws IOException {
+      buffer.clear();
+      int read;
+      do {
+        read = channel.read(buffer);
+      }
+      while (read == 0);
+      buffer.flip();
+      return read > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Merges sorted runs, taking the least current entry of all runs.
+   */
+  private static final class MergedRuns
+      extends Source
+  {
+    private final List<RunInput> inputs = new ArrayList<>();
+
+    private final PriorityQueue<RunInput> queue = new PriorityQueue<>(MergedRuns::compare);
+
+    @Nullable
+    private RunInput current;
+
+    MergedRuns(final List<Path> runs) throws IOException {
+      try {
+        for (Path run : runs) {
+          RunInput input = new RunInput(run);
+          inputs.add(input);
+          if (input.next()) {
+            queue.add(input);
+          }
+        }
+      }
+      catch (IOException | RuntimeException e) {
+        close();
+        throw e;
+      }
+    }
+
+    @Override
+    boolean next() throws IOException {
+      if (current != null && current.next()) {
+        queue.add(current);
+      }
+      current = queue.poll();
+      if (current == null) {
+        return false;
+      }
+      key = current.key;
+      length = current.length;
+      id = current.id;
+      return true;
+    }
+
+    private static int compare(final RunInput a, final RunInput b) {
+      for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+        int cmp = Integer.compare(a.key[i] & 0xFF, b.key[i] & 0xFF);
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+      return Integer.compare(a.length, b.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      IOException failure = null;
+      for (RunInput input : inputs) {
+        try {
+          input.close();
+        }
+        catch (IOException e) {
+          if (failure == null) {
+            failure = e;
+          }
+          else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  /**
+   * Encodes entries of a block into a buffer, so the block is moved past a region boundary before it is written.
+   */
+  private static final class Blocks
+  {
+    private final Output out;
+
+    private final int regionShift;
+
+    private ByteBuffer block = ByteBuffer.allocate(4096);
+
+    private int entries;
+
+    private long[] offsets = new long[64];
+
+    private int count;
+
+    Blocks(final Output out, final int regionShift) {
+      this.out = out;
+      this.regionShift = regionShift;
+    }
+
+    /**
+     * Add entry sharing given prefix length with the previous entry, which the first entry of a block does not use.
+     */
+    void add(final int shared, final byte[] key, final int length, final long id) throws IOException {
+      int from = entries == 0 ? 0 : shared;
+      ensure(length - from + 30);
+      putVarint(block, from);
+      putVarint(block, length - from);
+      block.put(key, from, length - from);
+      putVarint(block, id);
+      if (++entries == BLOCK_ENTRIES) {
+        flush();
+      }
+    }
+
+    void flush() throws IOException {
+      if (entries == 0) {
+        return;
+      }
+      long regionSize = 1L << regionShift;
+      int length = block.position();
+      if (length > regionSize) {
+        throw new IllegalArgumentException("Index block too large: " + length);
+      }
+      long position = out.position();
+      if (position >>> regionShift != (position + length - 1) >>> regionShift) {
+        out.pad(regionSize - (position & (regionSize - 1)));
+      }
+      if (count == offsets.length) {
+        offsets = Arrays.copyOf(offsets, count * 2);
+      }
+      offsets[count++] = out.position();
+      out.put(block.array(), 0, length);
+      block.clear();
+      entries = 0;
+    }
+
+    private void ensure(final int length) {
+      if (block.remaining() < length) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(block.capacity() * 2, block.position() + length));
+        block.flip();
+        block = grown.put(block);
+      }
+    }
+  }
+
+  private static void putVarint(final ByteBuffer buffer, final long value) {
+    long v = value;
+    while ((v & ~0x7FL) != 0) {
+      buffer.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    buffer.put((byte) v);
+  }
+
+  /**
+   * Buffered channel output tracking the file position.
+   */
+  private static final class Output
+  {
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Position of the buffer in the file.
+     */
+    private long position;
+
+    Output(final FileChannel channel) {
+      this.channel = channel;
+    }
+
+    long position() {
+      return position + buffer.position();
+    }
+
+    void put(final byte[] bytes, final int offset, final int length) throws IOException {
+      for (int i = 0; i < length; ) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int n = Math.min(buffer.remaining(), length - i);
+        buffer.put(bytes, offset + i, n);
+        i += n;
+      }
+    }
+
+    void pad(final long length) throws IOException {
+      for (long i = 0; i < length; ) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int n = (int) Math.min(buffer.remaining(), length - i);
+        Arrays.fill(buffer.array(), buffer.position(), buffer.position() + n, (byte) 0);
+        buffer.position(buffer.position() + n);
+        i += n;
+      }
+    }
+
+    void putVarint(final long value) throws IOException {
+      if (buffer.remaining() < 10) {
+        flush();
+      }
+      PackageUrlIndexFile.putVarint(buffer, value);
+    }
+
+    void putLong(final long value) throws IOException {
+      if (buffer.remaining() < 8) {
+        flush();
+      }
+      buffer.putLong(value);
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      position += buffer.limit();
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * {@link PackageUrl} interner.
+ *
+ * Canonicalizes equal instances, and shares equal component strings, namespace and subpath segment lists and
+ * qualifier maps between the instances it returns; reducing retained heap for large inventories.
+ *
+ * {@link #strong() Strong} interners retain values until discarded; {@link #weak() weak} interners allow values
+ * which are no longer referenced elsewhere to be garbage-collected.  Each table retains at most {@code maxSize}
+ * values; once full, values which are not already interned are no longer retained.  Weak tables are lock-striped
+ * with {@code maxSize} divided between the stripes, so a stripe may fill before the table as a whole.
+ *
+ * May be configured on {@link PackageUrlParser#interner(PackageUrlInterner)} and
+ * {@link PackageUrlBuilder#interner(PackageUrlInterner)}.
+ *
+ * @since 1.3.0
+ */
+@ThreadSafe
+public final class PackageUrlInterner
+{
+  /**
+   * Default maximum number of values retained per table.
+   */
+  public static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+  private final Table<String> strings;
+
+  private final Table<SegmentList> segments;
+
+  private final Table<QualifierMap> qualifiers;
+
+  private final Table<PackageUrl> instances;
+
+  private PackageUrlInterner(final boolean weak, final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Invalid max-size: " + maxSize);
+    }
+    this.strings = weak ? new WeakTable<>(maxSize) : new StrongTable<>(maxSize);
+    this.segments = weak ? new WeakTable<>(maxSize) : new StrongTable<>(maxSize);
+    this.qualifiers = weak ? new WeakTable<>(maxSize) : new StrongTable<>(maxSize);
+    this.instances = weak ? new WeakTable<>(maxSize) : new StrongTable<>(maxSize);
+  }
+
+  /**
+   * Create an interner which strongly retains values; bounded by {@link #DEFAULT_MAX_SIZE}.
+   */
+  public static PackageUrlInterner strong() {
+    return strong(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Create an interner which strongly retains values; bounded by given max-size per table.
+   */
+  public static PackageUrlInterner strong(final int maxSize) {
+    return new PackageUrlInterner(false, maxSize);
+  }
+
+  /**
+   * Create an interner which weakly retains values; bounded by {@link #DEFAULT_MAX_SIZE}.
+   */
+  public static PackageUrlInterner weak() {
+    return weak(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Create an interner which weakly retains values; bounded by given max-size per table.
+   */
+  public static PackageUrlInterner weak(final int maxSize) {
+    return new PackageUrlInterner(true, maxSize);
+  }
+
+  /**
+   * Return the canonical instance equal to given value.
+   *
+   * When not already interned the canonical instance is a copy which shares interned components.
+   */
+  public PackageUrl intern(final PackageUrl purl) {
+    PackageUrl existing = instances.get(purl);
+    if (existing != null) {
+      return existing;
+    }
+
+    PackageUrl shared = PackageUrl.ofUnmodifiable(
+        intern(purl.getType()),
+        internSegments(purl.getNamespace()),
+        intern(purl.getName()),
+        internNullable(purl.getVersion()),
+        internQualifiers(purl.getQualifiers()),
+        internSegments(purl.getSubpath())
+    );
+    return instances.put(shared);
+  }
+
+  /**
+   * Return the canonical component string equal to given value.
+   */
+  public String intern(final String value) {
+    String existing = strings.get(value);
+    return existing != null ? existing : strings.put(value);
+  }
+
+  @Nullable
+  private String internNullable(@Nullable final String value) {
+    return value != null ? intern(value) : null;
+  }
+
+  /**
+   * Return the canonical unmodifiable segment list equal to given value.
+   */
+  @Nullable
+  SegmentList internSegments(@Nullable final List<String> values) {
+    if (values == null) {
+      return null;
+    }
+    SegmentList existing = segments.get(SegmentList.copyOf(values));
+    if (existing != null) {
+      return existing;
+    }
+    String[] copy = new String[values.size()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = intern(values.get(i));
+    }
+    return segments.put(SegmentList.of(copy));
+  }
+
+  /**
+   * Return the canonical unmodifiable qualifier map equal to given value.
+   */
+  @Nullable
+  QualifierMap internQualifiers(@Nullable final SortedMap<String, String> values) {
+    if (values == null) {
+      return null;
+    }
+    QualifierMap existing = qualifiers.get(QualifierMap.copyOf(values));
+    if (existing != null) {
+      return existing;
+    }
+    String[] copy = new String[values.size() * 2];
+    int i = 0;
+    for (Entry<String, String> entry : values.entrySet()) {
+      copy[i++] = intern(entry.getKey());
+      copy[i++] = intern(entry.getValue());
+    }
+    return qualifiers.put(QualifierMap.ofSorted(copy));
+  }
+
+  //
+  // Tables
+  //
+
+  /**
+   * Bounded concurrent canonicalizing table.
+   */
+  private interface Table<T>
+  {
+    /**
+     * Return the canonical value equal to given value; or {@code null} if there is none.
+     */
+    @Nullable
+    T get(T value);
+
+    /**
+     * Add given value if there is no canonical value and the table is not full; returns the canonical value,
+     * or given value if it could not be added.
+     */
+    T put(T value);
+  }
+
+  /**
+   * Strongly retaining table.
+   */
+  private static final class StrongTable<T>
+      implements Table<T>
+  {
+    private final ConcurrentHashMap<T, T> values = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private StrongTable(final int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    @Nullable
+    @Override
+    public T get(final T value) {
+      return values.get(value);
+    }
+
+    @Override
+    public T put(final T value) {
+      if (values.size() >= maxSize) {
+        T existing = values.get(value);
+        return existing != null ? existing : value;
+      }
+      T existing = values.putIfAbsent(value, value);
+      return existing != null ? existing : value;
+    }
+  }
+
+  /**
+   * Weakly retaining table; lock-striped {@link WeakHashMap} segments.
+   */
+  private static final class WeakTable<T>
+      implements Table<T>
+  {
+    private static final int SEGMENTS = 16;
+
+    private final Segment<T>[] segments;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private WeakTable(final int maxSize) {
+      segments = new Segment[SEGMENTS];
+      // spread the remainder so segment sizes sum to exactly max-size
+      int segmentSize = maxSize / SEGMENTS;
+      int remainder = maxSize % SEGMENTS;
+      for (int i = 0; i < SEGMENTS; i++) {
+        segments[i] = new Segment<>(i < remainder ? segmentSize + 1 : segmentSize);
+      }
+    }
+
+    private Segment<T> segment(final T value) {
+      int hash = value.hashCode();
+      hash ^= hash >>> 16;
+      return segments[hash & (SEGMENTS - 1)];
+    }
+
+    @Nullable
+    @Override
+    public T get(final T value) {
+      return segment(value).get(value);
+    }
+
+    @Override
+    public T put(final T value) {
+      return segment(value).put(value);
+    }
+
+    private static final class Segment<T>
+    {
+      private final WeakHashMap<T, WeakReference<T>> values = new WeakHashMap<>();
+
+      private final int maxSize;
+
+      private Segment(final int maxSize) {
+        this.maxSize = maxSize;
+      }
+
+      @Nullable
+      synchronized T get(final T value) {
+        WeakReference<T> ref = values.get(value);
+        return ref != null ? ref.get() : null;
+      }
+
+      synchronized T put(final T value) {
+        T existing = get(value);
+        if (existing != null) {
+          return existing;
+        }
+        if (values.size() < maxSize) {
+          values.put(value, new WeakReference<>(value));
+        }
+        return value;
+      }
+    }
+  }
+}
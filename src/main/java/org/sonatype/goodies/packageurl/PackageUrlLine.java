@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Result of parsing one line of newline-delimited package-url input.
+ *
+ * Either holds the parsed {@link PackageUrl}, or the type and message of the failure.
+ *
+ * @see PackageUrlParser#parseLines(java.io.Reader)
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlLine
+{
+  private final long lineNumber;
+
+  private final String line;
+
+  @Nullable
+  private final PackageUrl packageUrl;
+
+  @Nullable
+  private final Class<? extends RuntimeException> errorType;
+
+  @Nullable
+  private final String errorMessage;
+
+  private PackageUrlLine(final long lineNumber,
+                         final String line,
+                         @Nullable final PackageUrl packageUrl,
+                         @Nullable final Class<? extends RuntimeException> errorType,
+                         @Nullable final String errorMessage)
+  {
+    this.lineNumber = lineNumber;
+    this.line = requireNonNull(line);
+    this.packageUrl = packageUrl;
+    this.errorType = errorType;
+    this.errorMessage = errorMessage;
+  }
+
+  static PackageUrlLine valid(final long lineNumber, final String line, final PackageUrl packageUrl) {
+    return new PackageUrlLine(lineNumber, line, requireNonNull(packageUrl), null, null);
+  }
+
+  static PackageUrlLine invalid(final long lineNumber, final String line, final PackageUrlParseResult result) {
+    return new PackageUrlLine(lineNumber, line, null, requireNonNull(result.getReason()).getExceptionType(),
+        result.getMessage());
+  }
+
+  /**
+   * Line number; starting at 1.
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Line content, with-out line terminator.
+   */
+  public String getLine() {
+    return line;
+  }
+
+  public boolean isValid() {
+    return packageUrl != null;
+  }
+
+  /**
+   * Parsed value; or {@code null} if invalid.
+   */
+  @Nullable
+  public PackageUrl getPackageUrl() {
+    return packageUrl;
+  }
+
+  /**
+   * Type of failure; or {@code null} if valid.
+   */
+  @Nullable
+  public Class<? extends RuntimeException> getErrorType() {
+    return errorType;
+  }
+
+  /**
+   * Failure message; or {@code null} if valid.
+   */
+  @Nullable
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  @Override
+  public String toString() {
+    if (isValid()) {
+      return lineNumber + ": " + packageUrl;
+    }
+    return lineNumber + ": " + errorType.getSimpleName() + ": " + errorMessage;
+  }
+}
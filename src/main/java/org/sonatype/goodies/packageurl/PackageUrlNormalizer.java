@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Type-specific {@link PackageUrl} normalization.
+ *
+ * Applied by {@link PackageUrlBuilder} when {@link PackageUrlBuilder#typeSpecificTransformations(boolean) type-specific
+ * transformations} are enabled; see {@link PackageUrlNormalizers} for configuration.
+ *
+ * Implementations must be thread-safe, and should return the given instance when nothing changes.
+ *
+ * @since 1.3.0
+ */
+public interface PackageUrlNormalizer
+{
+  /**
+   * Normalize namespace segments.
+   */
+  @Nullable
+  default List<String> normalizeNamespace(@Nullable final List<String> namespace) {
+    return namespace;
+  }
+
+  /**
+   * Normalize name.
+   */
+  default String normalizeName(final String name) {
+    return name;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable set of {@link PackageUrlNormalizer} by {@link PackageUrl#getType() type}.
+ *
+ * {@link #defaults() Defaults}, per the
+ * <a href="https://github.com/package-url/purl-spec/blob/master/PURL-TYPES.rst">Package URL types</a>:
+ *
+ * <ul>
+ *   <li>{@code alpm}, {@code apk}, {@code bitbucket}, {@code composer}, {@code deb}, {@code github} and {@code hex}:
+ *   namespace and name are lower-cased</li>
+ *   <li>{@code bitnami}: name is lower-cased</li>
+ *   <li>{@code pypi}: name is lower-cased and {@code _} replaced by {@code -}</li>
+ * </ul>
+ *
+ * Additional types may be added, and defaults replaced, with {@link #with(String, PackageUrlNormalizer)}; the result
+ * is configured per-parser with {@link PackageUrlParser#normalizers(PackageUrlNormalizers)} or per-builder with
+ * {@link PackageUrlBuilder#normalizers(PackageUrlNormalizers)}.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlNormalizers
+{
+  private static final PackageUrlNormalizers DEFAULTS;
+
+  static {
+    Map<String, PackageUrlNormalizer> defaults = new HashMap<>();
+    for (String type : new String[]{"alpm", "apk", "bitbucket", "composer", "deb", "github", "hex"}) {
+      defaults.put(type, Builtin.LOWER_CASE);
+    }
+    defaults.put("bitnami", Builtin.LOWER_CASE_NAME);
+    defaults.put("pypi", Builtin.PYPI);
+    DEFAULTS = new PackageUrlNormalizers(defaults);
+  }
+
+  private final Map<String, PackageUrlNormalizer> normalizers;
+
+  /**
+   * Types with a normalizer, for look-up by range; types which can not start a package-url are omitted.
+   */
+  private final String[][] types;
+
+  private PackageUrlNormalizers(final Map<String, PackageUrlNormalizer> normalizers) {
+    this.normalizers = normalizers;
+    this.types = MoreStrings.constants(normalizers.keySet().stream()
+        .filter(type -> !type.isEmpty() && type.charAt(0) < 128)
+        .toArray(String[]::new));
+  }
+
+  /**
+   * Normalizers required by the specification.
+   */
+  public static PackageUrlNormalizers defaults() {
+    return DEFAULTS;
+  }
+
+  /**
+   * Copy with given normalizer for given type, replacing any other normalizer for the type.
+   */
+  public PackageUrlNormalizers with(final String type, final PackageUrlNormalizer normalizer) {
+    requireNonNull(type);
+    requireNonNull(normalizer);
+    Map<String, PackageUrlNormalizer> copy = new HashMap<>(normalizers);
+    copy.put(MoreStrings.lowerCase(type), normalizer);
+    return new PackageUrlNormalizers(copy);
+  }
+
+  /**
+   * Copy with-out a normalizer for given type.
+   */
+  public PackageUrlNormalizers without(final String type) {
+    requireNonNull(type);
+    Map<String, PackageUrlNormalizer> copy = new HashMap<>(normalizers);
+    copy.remove(MoreStrings.lowerCase(type));
+    return new PackageUrlNormalizers(copy);
+  }
+
+  /**
+   * Normalizer for given lower-case type; or {@code null} if there is none.
+   */
+  @Nullable
+  public PackageUrlNormalizer get(final String type) {
+    return normalizers.get(type);
+  }
+
+  /**
+   * Normalizer for the type in given range of value, ignoring case; or {@code null} if there is none.
+   *
+   * Does not allocate.
+   */
+  @Nullable
+  PackageUrlNormalizer get(final CharSequence value, final int start, final int end) {
+    String type = MoreStrings.constant(types, value, start, end, true);
+    return type != null ? normalizers.get(type) : null;
+  }
+
+  /**
+   * Normalizer which lower-cases namespace and name.
+   */
+  public static PackageUrlNormalizer lowerCase() {
+    return Builtin.LOWER_CASE;
+  }
+
+  /**
+   * Normalizer which lower-cases name.
+   */
+  public static PackageUrlNormalizer lowerCaseName() {
+    return Builtin.LOWER_CASE_NAME;
+  }
+
+  /**
+   * Built-in normalizers; returns given instances when unchanged.
+   */
+  private enum Builtin
+      implements PackageUrlNormalizer
+  {
+    LOWER_CASE {
+      @Nullable
+      @Override
+      public List<String> normalizeNamespace(@Nullable final List<String> namespace) {
+        return MoreStrings.lowerCase(namespace);
+      }
+
+      @Override
+      public String normalizeName(final String name) {
+        return MoreStrings.lowerCase(name);
+      }
+    },
+
+    LOWER_CASE_NAME {
+      @Override
+      public String normalizeName(final String name) {
+        return MoreStrings.lowerCase(name);
+      }
+    },
+
+    PYPI {
+      @Override
+      public String normalizeName(final String name) {
+        return MoreStrings.lowerCase(name.replace('_', '-'));
+      }
+    }
+  }
+}
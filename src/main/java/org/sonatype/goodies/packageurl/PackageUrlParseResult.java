@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Result of {@link PackageUrlParser#tryParse(String)} and {@link PackageUrlParser#validate(String)}.
+ *
+ * Either holds the parsed {@link PackageUrl}, or the {@link Reason} and offset of the failure; failures are recorded
+ * with-out constructing exceptions, and {@link #toException(boolean)} is only needed if the caller wishes to throw.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlParseResult
+{
+  /**
+   * Failure reason.
+   */
+  public enum Reason
+  {
+    /**
+     * Value does not have the shape of a package-url.
+     */
+    INVALID_SYNTAX(InvalidException.class),
+
+    /**
+     * Namespace or subpath has an empty segment.
+     */
+    EMPTY_SEGMENT(EmptySegmentException.class),
+
+    /**
+     * Decoded namespace or subpath segment has illegal content.
+     */
+    ILLEGAL_SEGMENT_CONTENT(IllegalSegmentContentException.class),
+
+    /**
+     * Component has a malformed {@code %XX} escape.
+     */
+    MALFORMED_ESCAPE(IllegalArgumentException.class);
+
+    private final Class<? extends RuntimeException> exceptionType;
+
+    Reason(final Class<? extends RuntimeException> exceptionType) {
+      this.exceptionType = exceptionType;
+    }
+
+    /**
+     * Type of exception thrown by {@link PackageUrlParser#parse(String)} for this reason.
+     */
+    public Class<? extends RuntimeException> getExceptionType() {
+      return exceptionType;
+    }
+  }
+
+  private final String input;
+
+  @Nullable
+  private final PackageUrl packageUrl;
+
+  @Nullable
+  private final Reason reason;
+
+  private final int offset;
+
+  /**
+   * Component which failed; or {@code null} if valid.
+   */
+  @Nullable
+  private final String component;
+
+  /**
+   * Offending content of the component; escape failures hold the encoded value, segment content failures the
+   * illegal content.
+   */
+  @Nullable
+  private final String detail;
+
+  private PackageUrlParseResult(final String input,
+                                @Nullable final PackageUrl packageUrl,
+                                @Nullable final Reason reason,
+                                final int offset,
+                                @Nullable final String component,
+                                @Nullable final String detail)
+  {
+    this.input = requireNonNull(input);
+    this.packageUrl = packageUrl;
+    this.reason = reason;
+    this.offset = offset;
+    this.component = component;
+    this.detail = detail;
+  }
+
+  static PackageUrlParseResult valid(final String input, @Nullable final PackageUrl packageUrl) {
+    return new PackageUrlParseResult(input, packageUrl, null, -1, null, null);
+  }
+
+  /**
+   * Invalid result from the failure details recorded on given scanner.
+   */
+  static PackageUrlParseResult invalid(final String input, final PackageUrlScanner scanner) {
+    Reason reason = requireNonNull(scanner.failure);
+    return new PackageUrlParseResult(input, null, reason, scanner.failureOffset,
+        input.substring(scanner.failureStart, scanner.failureEnd), scanner.failureDetail);
+  }
+
+  /**
+   * Input value.
+   */
+  public String getInput() {
+    return input;
+  }
+
+  public boolean isValid() {
+    return reason == null;
+  }
+
+  /**
+   * Parsed package-url; or {@code null} if invalid, or if only {@link PackageUrlParser#validate(String) validated}.
+   */
+  @Nullable
+  public PackageUrl getPackageUrl() {
+    return packageUrl;
+  }
+
+  /**
+   * Failure reason; or {@code null} if valid.
+   */
+  @Nullable
+  public Reason getReason() {
+    return reason;
+  }
+
+  /**
+   * Offset in {@link #getInput() input} where the failure was detected; or {@code -1} if valid or unknown.
+   *
+   * {@link PackageUrlParser.Engine#REGEX} does not report offsets for {@link Reason#INVALID_SYNTAX} failures.
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Failure message, as would be thrown by {@link PackageUrlParser#parse(String)}; or {@code null} if valid.
+   */
+  @Nullable
+  public String getMessage() {
+    if (reason == null) {
+      return null;
+    }
+    switch (reason) {
+      case EMPTY_SEGMENT:
+        return EmptySegmentException.message(component);
+      case ILLEGAL_SEGMENT_CONTENT:
+        return IllegalSegmentContentException.message(detail, component);
+      case MALFORMED_ESCAPE:
+        return PercentEncoding.malformedEscapeMessage(detail);
+      default:
+        return input;
+    }
+  }
+
+  /**
+   * Exception for failure, as would be thrown by {@link PackageUrlParser#parse(String)}.
+   *
+   * @param stackTrace {@code false} to skip capturing the stack trace; {@link Reason#MALFORMED_ESCAPE} failures always
+   *                   capture it.
+   * @throws IllegalStateException if valid.
+   */
+  public RuntimeException toException(final boolean stackTrace) {
+    if (reason == null) {
+      throw new IllegalStateException("Valid: " + input);
+    }
+    switch (reason) {
+      case EMPTY_SEGMENT:
+        return new EmptySegmentException(component, stackTrace);
+      case ILLEGAL_SEGMENT_CONTENT:
+        return new IllegalSegmentContentException(detail, component, stackTrace);
+      case MALFORMED_ESCAPE:
+        return new IllegalArgumentException(getMessage());
+      default:
+        return new InvalidException(input, stackTrace);
+    }
+  }
+
+  /**
+   * Return the parsed package-url; or throw the failure with stack trace.
+   */
+  public PackageUrl orElseThrow() {
+    if (reason != null) {
+      throw toException(true);
+    }
+    if (packageUrl == null) {
+      throw new IllegalStateException("Not parsed: " + input);
+    }
+    return packageUrl;
+  }
+
+  @Override
+  public String toString() {
+    if (reason == null) {
+      return packageUrl != null ? packageUrl.toString() : input;
+    }
+    return reason + "@" + offset + ": " + getMessage();
+  }
+}
@@ -12,12 +12,29 @@
  */
 package org.sonatype.goodies.packageurl;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 
@@ -72,8 +89,49 @@ public class PackageUrlParser
       TYPE, NAMESPACE, NAME, VERSION, QUALIFIERS, SUBPATH
   ));
 
+  /**
+   * Parsing engine.
+   *
+   * @since 1.3.0
+   */
+  public enum Engine
+  {
+    /**
+     * Single-pass character scanner (default).
+     */
+    SCANNER,
+
+    /**
+     * Regular-expression matching via {@link #PURL_SCHEME_PATTERN} and {@link #PURL_SCHEMELESS_PATTERN}.
+     */
+    REGEX
+  }
+
+  /**
+   * Well-known types; parsed as shared constants.
+   */
+  private static final String[][] TYPES = MoreStrings.constants(
+      "alpm", "apk", "bitbucket", "bitnami", "cargo", "cocoapods", "composer", "conan", "conda", "cran", "deb",
+      "docker", "gem", "generic", "github", "golang", "hackage", "hex", "huggingface", "luarocks", "maven", "mlflow",
+      "npm", "nuget", "oci", "pub", "pypi", "qpkg", "rpm", "swid", "swift"
+  );
+
   private boolean typeSpecificTransformations = true;
 
+  private PackageUrlNormalizers normalizers = PackageUrlNormalizers.defaults();
+
+  private Engine engine = Engine.SCANNER;
+
+  private boolean stackTraces = true;
+
+  @Nullable
+  private PackageUrlInterner interner;
+
+  @Nullable
+  private PackageUrlCache cache;
+
+  private boolean frozen;
+
   /**
    * If enabled then the builder will make the changes defined in the Package URL spec to the namespace and name for specific types.
    *
@@ -82,10 +140,122 @@ public class PackageUrlParser
    * @since 1.2.0
    */
   public PackageUrlParser typeSpecificTransformations(boolean enable) {
+    checkNotFrozen();
     this.typeSpecificTransformations = enable;
     return this;
   }
 
+  /**
+   * Configure the {@link PackageUrlNormalizers} applied by {@link #typeSpecificTransformations(boolean) type-specific
+   * transformations}; defaults to {@link PackageUrlNormalizers#defaults()}.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParser normalizers(final PackageUrlNormalizers normalizers) {
+    checkNotFrozen();
+    this.normalizers = requireNonNull(normalizers);
+    return this;
+  }
+
+  /**
+   * Normalizers applied to parsed values; or {@code null} if type-specific transformations are disabled.
+   */
+  @Nullable
+  PackageUrlNormalizers getNormalizers() {
+    return typeSpecificTransformations ? normalizers : null;
+  }
+
+  /**
+   * Configure the parsing {@link Engine}; defaults to {@link Engine#SCANNER}.
+   *
+   * Both engines accept and reject the same values; {@link Engine#REGEX} is retained for comparison.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParser engine(final Engine engine) {
+    checkNotFrozen();
+    this.engine = requireNonNull(engine);
+    return this;
+  }
+
+  /**
+   * Configure if exceptions thrown by {@link #parse(String)} capture stack traces; enabled by default.
+   *
+   * Disabling avoids the cost of capturing stack traces where invalid values are expected and handled; malformed
+   * percent escapes are still thrown as {@link IllegalArgumentException} with stack trace.
+   *
+   * @see #tryParse(String)
+   * @since 1.3.0
+   */
+  public PackageUrlParser stackTraces(final boolean enable) {
+    checkNotFrozen();
+    this.stackTraces = enable;
+    return this;
+  }
+
+  /**
+   * Configure {@link PackageUrlInterner} to canonicalize parsed instances; or {@code null} to disable.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParser interner(@Nullable final PackageUrlInterner interner) {
+    checkNotFrozen();
+    this.interner = interner;
+    return this;
+  }
+
+  /**
+   * Configure {@link PackageUrlCache} to return shared instances for previously parsed values; or {@code null} to
+   * disable.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParser cache(@Nullable final PackageUrlCache cache) {
+    checkNotFrozen();
+    this.cache = cache;
+    return this;
+  }
+
+  /**
+   * New {@link PackageUrlBuilder} configured as this parser; with the same type-specific transformations, normalizers
+   * and interner, so built instances are equal to parsed instances of the same components.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlBuilder builder() {
+    return new PackageUrlBuilder()
+        .typeSpecificTransformations(typeSpecificTransformations)
+        .normalizers(normalizers)
+        .interner(interner);
+  }
+
+  /**
+   * Freeze configuration; further configuration fails with {@link IllegalStateException}.
+   *
+   * Frozen parsers are immutable and may be shared by threads once safely published, for example in a
+   * {@code static final} field.
+   *
+   * @return this parser.
+   * @since 1.3.0
+   */
+  public PackageUrlParser freeze() {
+    this.frozen = true;
+    return this;
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  private void checkNotFrozen() {
+    if (frozen) {
+      throw new IllegalStateException("Parser is frozen");
+    }
+  }
+
   /**
    * Parse package-url from given value.
    *
@@ -94,6 +264,176 @@ public class PackageUrlParser
   public PackageUrl parse(final String value) {
     requireNonNull(value);
 
+    if (cache != null) {
+      PackageUrl result = cache.get(value, getNormalizers());
+      if (result == null) {
+        result = parseUncached(value);
+        cache.put(value, getNormalizers(), result);
+      }
+      return result;
+    }
+    return parseUncached(value);
+  }
+
+  /**
+   * Parse package-url from given range of chars; as {@link #parse(String)} with-out copying the range to a string.
+   *
+   * When a {@link #cache(PackageUrlCache) cache} is configured the range is copied, as the cache is keyed by string.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrl parse(final char[] chars, final int offset, final int length) {
+    requireNonNull(chars);
+    if (cache != null) {
+      return parse(new String(chars, offset, length));
+    }
+    return parseUncached(CharBuffer.wrap(chars, offset, length));
+  }
+
+  private PackageUrl parseUncached(final CharSequence value) {
+    PackageUrlScanner scanner = new PackageUrlScanner();
+    PackageUrl result = parseComponents(value, scanner, true);
+    if (result == null) {
+      throw PackageUrlParseResult.invalid(value.toString(), scanner).toException(stackTraces);
+    }
+    return result;
+  }
+
+  /**
+   * Parse package-url from given value with-out throwing.
+   *
+   * Failures are returned as {@link PackageUrlParseResult#isValid() invalid} results with their reason and offset; no
+   * exceptions are constructed.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParseResult tryParse(final String value) {
+    requireNonNull(value);
+
+    if (cache != null) {
+      PackageUrl cached = cache.get(value, getNormalizers());
+      if (cached != null) {
+        return PackageUrlParseResult.valid(value, cached);
+      }
+    }
+
+    PackageUrlScanner scanner = new PackageUrlScanner();
+    PackageUrl result = parseComponents(value, scanner, true);
+    if (result == null) {
+      return PackageUrlParseResult.invalid(value, scanner);
+    }
+    if (cache != null) {
+      cache.put(value, getNormalizers(), result);
+    }
+    return PackageUrlParseResult.valid(value, result);
+  }
+
+  /**
+   * Validate package-url syntax and components of given value with-out throwing.
+   *
+   * Same as {@link #tryParse(String)} but valid results do not hold the {@link PackageUrl}, which is not built.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlParseResult validate(final String value) {
+    requireNonNull(value);
+
+    PackageUrlScanner scanner = new PackageUrlScanner();
+    parseComponents(value, scanner, false);
+    if (scanner.failure != null) {
+      return PackageUrlParseResult.invalid(value, scanner);
+    }
+    return PackageUrlParseResult.valid(value, null);
+  }
+
+  /**
+   * Locate and decode components of given value, and build the result if requested; returns {@code null} with failure
+   * details recorded on the scanner when invalid.
+   *
+   * Components are owned by the result with-out intermediate builder or copies.
+   */
+  @Nullable
+  private PackageUrl parseComponents(final CharSequence value, final PackageUrlScanner scanner, final boolean build) {
+    boolean matched = engine == Engine.REGEX ? match(value.toString(), scanner) : scanner.scan(value);
+    if (!matched) {
+      return null;
+    }
+    return buildComponents(value, scanner, build);
+  }
+
+  /**
+   * Parse package-url from given value, already scanned by given scanner; as {@link #parse(String)} with-out scanning
+   * again.
+   *
+   * When a {@link #cache(PackageUrlCache) cache} is configured the value is copied, as the cache is keyed by string.
+   */
+  PackageUrl parseScanned(final CharSequence value, final PackageUrlScanner scanner) {
+    if (cache != null) {
+      return parse(value.toString());
+    }
+    scanner.failure = null;
+    PackageUrl result = buildComponents(value, scanner, true);
+    if (result == null) {
+      throw PackageUrlParseResult.invalid(value.toString(), scanner).toException(stackTraces);
+    }
+    return result;
+  }
+
+  /**
+   * Decode components located by given scanner, and build the result if requested; returns {@code null} with failure
+   * details recorded on the scanner when invalid.
+   */
+  @Nullable
+  private PackageUrl buildComponents(final CharSequence value, final PackageUrlScanner scanner, final boolean build) {
+    List<String> namespace = null;
+    if (scanner.namespaceStart != -1) {
+      namespace = parseSegments(value, scanner.namespaceStart, scanner.namespaceEnd, scanner);
+      if (scanner.failure != null) {
+        return null;
+      }
+    }
+    String name = decode(value, scanner.nameStart, scanner.nameEnd, scanner.nameStart, scanner.nameEnd, scanner);
+    if (name == null) {
+      return null;
+    }
+    String version = null;
+    if (scanner.versionStart != -1) {
+      version = decode(value, scanner.versionStart, scanner.versionEnd, scanner.versionStart, scanner.versionEnd,
+          scanner);
+      if (version == null) {
+        return null;
+      }
+    }
+    QualifierMap qualifiers = null;
+    if (scanner.qualifiersStart != -1) {
+      qualifiers = parseQualifiers(value, scanner.qualifiersStart, scanner.qualifiersEnd, scanner);
+      if (scanner.failure != null) {
+        return null;
+      }
+    }
+    List<String> subpath = null;
+    if (scanner.subpathStart != -1) {
+      subpath = parseSegments(value, scanner.subpathStart, scanner.subpathEnd, scanner, ".", "..");
+      if (scanner.failure != null) {
+        return null;
+      }
+    }
+
+    if (!build) {
+      return null;
+    }
+    String type = MoreStrings.constant(TYPES, value, scanner.typeStart, scanner.typeEnd, true);
+    if (type == null) {
+      type = parseType(value.subSequence(scanner.typeStart, scanner.typeEnd).toString());
+    }
+    return PackageUrlBuilder.build(type, namespace, name, version, qualifiers, subpath, getNormalizers(), interner);
+  }
+
+  /**
+   * Match with {@link #PURL_SCHEME_PATTERN} or {@link #PURL_SCHEMELESS_PATTERN}; component ranges are recorded on the
+   * scanner.
+   */
+  private static boolean match(final String value, final PackageUrlScanner scanner) {
     Pattern pattern;
     if (value.startsWith(PackageUrl.SCHEME + ":")) {
       pattern = PURL_SCHEME_PATTERN;
@@ -103,19 +443,166 @@ public class PackageUrlParser
     }
 
     Matcher m = pattern.matcher(value);
-    if (m.matches()) {
-      return new PackageUrlBuilder()
-          .typeSpecificTransformations(typeSpecificTransformations)
-          .type(parseType(m.group("type")))
-          .namespace(parseNamespace(m.group("namespace")))
-          .name(parseName(m.group("name")))
-          .version(parseVersion(m.group("version")))
-          .qualifiers(parseQualifiers(m.group("qualifiers")))
-          .subpath(parseSubpath(m.group("subpath")))
-          .buildAndValidate(false);
+    if (!m.matches()) {
+      // matcher does not report where matching failed
+      scanner.fail(PackageUrlParseResult.Reason.INVALID_SYNTAX, -1, 0, value.length(), null);
+      return false;
+    }
+
+    scanner.failure = null;
+    scanner.typeStart = m.start("type");
+    scanner.typeEnd = m.end("type");
+    scanner.namespaceStart = m.start("namespace");
+    scanner.namespaceEnd = m.end("namespace");
+    scanner.nameStart = m.start("name");
+    scanner.nameEnd = m.end("name");
+    scanner.versionStart = m.start("version");
+    scanner.versionEnd = m.end("version");
+    scanner.qualifiersStart = m.start("qualifiers");
+    scanner.qualifiersEnd = m.end("qualifiers");
+    scanner.subpathStart = m.start("subpath");
+    scanner.subpathEnd = m.end("subpath");
+    return true;
+  }
+
+  /**
+   * Parse all given values in parallel on the {@link ForkJoinPool#commonPool() common pool}.
+   *
+   * @see #parseAll(List, Executor)
+   * @since 1.3.0
+   */
+  public PackageUrlBatch parseAll(final List<String> values) {
+    return parseAll(values, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parse all given values in parallel on given executor.
+   *
+   * Results keep the order of the values; failures are collected per-index as with {@link #tryParse(String)} instead
+   * of thrown.  {@link ForkJoinPool} executors split the values recursively, other executors are given chunks of
+   * values.  The parser must not be reconfigured while parsing.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlBatch parseAll(final List<String> values, final Executor executor) {
+    return PackageUrlBatch.parse(values, this, executor);
+  }
+
+  /**
+   * Parse newline-delimited package-urls from given reader.
+   *
+   * Returns a lazy stream with one element per non-blank line; invalid lines are reported as
+   * {@link PackageUrlLine#isValid() invalid} elements rather than failing the stream.  Closing the stream closes the
+   * reader.  I/O failures are thrown as {@link UncheckedIOException}.
+   *
+   * @since 1.3.0
+   */
+  public Stream<PackageUrlLine> parseLines(final Reader reader) {
+    requireNonNull(reader);
+    BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    Spliterator<PackageUrlLine> spliterator = Spliterators.spliteratorUnknownSize(new LineIterator(lines),
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        lines.close();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Parse newline-delimited UTF-8 encoded package-urls from given stream.
+   *
+   * Malformed UTF-8 is replaced with {@code U+FFFD}, so it only affects the lines which hold it and does not fail the
+   * stream; as for {@link #parseLines(Path)}.
+   *
+   * @see #parseLines(Reader)
+   * @since 1.3.0
+   */
+  public Stream<PackageUrlLine> parseLines(final InputStream input) {
+    requireNonNull(input);
+    return parseLines(new InputStreamReader(input, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parse newline-delimited UTF-8 encoded package-urls from given file.
+   *
+   * Malformed UTF-8 is replaced as for {@link #parseLines(InputStream)}; unlike {@link Files#newBufferedReader}, which
+   * fails the stream.
+   *
+   * @see #parseLines(Reader)
+   * @since 1.3.0
+   */
+  public Stream<PackageUrlLine> parseLines(final Path path) throws IOException {
+    requireNonNull(path);
+    return parseLines(Files.newInputStream(path));
+  }
+
+  /**
+   * Parse one line; failures are captured in the result.
+   */
+  private PackageUrlLine parseLine(final long lineNumber, final String line) {
+    PackageUrlParseResult result = tryParse(line);
+    if (result.isValid()) {
+      return PackageUrlLine.valid(lineNumber, line, result.getPackageUrl());
+    }
+    return PackageUrlLine.invalid(lineNumber, line, result);
+  }
+
+  /**
+   * Reads and parses lines on demand; blank lines are skipped.
+   */
+  private class LineIterator
+      implements Iterator<PackageUrlLine>
+  {
+    private final BufferedReader reader;
+
+    private long lineNumber;
+
+    private PackageUrlLine next;
+
+    private boolean done;
+
+    LineIterator(final BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (done) {
+        return false;
+      }
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lineNumber++;
+          if (!MoreStrings.isBlank(line)) {
+            next = parseLine(lineNumber, line);
+            return true;
+          }
+        }
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      done = true;
+      return false;
     }
 
-    throw new InvalidException(value);
+    @Override
+    public PackageUrlLine next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      PackageUrlLine result = next;
+      next = null;
+      return result;
+    }
   }
 
   /**
@@ -172,6 +659,78 @@ public class PackageUrlParser
     return result.isEmpty() ? null : result;
   }
 
+  /**
+   * Parse normalized {@link PackageUrl#qualifiers} map from given range of {@code key=value(&key=value)*}; returns
+   * {@code null} with failure details recorded on the scanner when invalid, or when there are no entries.
+   *
+   * Entries are sorted as parsed; keys with upper-case characters, whose normalization depends on the order of
+   * entries, are rare and normalized as {@link QualifierMap#normalize(Map)}.
+   */
+  @Nullable
+  private static QualifierMap parseQualifiers(final CharSequence value,
+                                              final int start,
+                                              final int end,
+                                              final PackageUrlScanner scanner)
+  {
+    QualifierMap.Sorter sorter = new QualifierMap.Sorter(count(value, '&', start, end) + 1);
+    int i = start;
+    while (i < end) {
+      int amp = indexOf(value, '&', i, end);
+      int eq = indexOf(value, '=', i, amp);
+      String v = "";
+      if (eq < amp) {
+        v = decode(value, eq + 1, amp, start, end, scanner);
+        if (v == null) {
+          return null;
+        }
+      }
+      String k = QualifierMap.knownKey(value, i, eq);
+      if (k == null) {
+        k = value.subSequence(i, eq).toString();
+      }
+      if (!isLowerCase(k)) {
+        return parseMixedCaseQualifiers(value, start, end, scanner);
+      }
+      sorter.put(QualifierMap.key(k), v);
+      i = amp + 1;
+    }
+    return sorter.toNormalizedMap();
+  }
+
+  @Nullable
+  private static QualifierMap parseMixedCaseQualifiers(final CharSequence value,
+                                                       final int start,
+                                                       final int end,
+                                                       final PackageUrlScanner scanner)
+  {
+    Map<String, String> result = new LinkedHashMap<>();
+    int i = start;
+    while (i < end) {
+      int amp = indexOf(value, '&', i, end);
+      int eq = indexOf(value, '=', i, amp);
+      String v = "";
+      if (eq < amp) {
+        v = decode(value, eq + 1, amp, start, end, scanner);
+        if (v == null) {
+          return null;
+        }
+      }
+      result.put(value.subSequence(i, eq).toString(), v);
+      i = amp + 1;
+    }
+    return QualifierMap.normalize(result);
+  }
+
+  private static boolean isLowerCase(final String value) {
+    for (int i = 0, length = value.length(); i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Parse {@link PackageUrl#subpath} segments.
    */
@@ -189,41 +748,131 @@ public class PackageUrlParser
       return null;
     }
 
-    String[] parts = stripSlashes(value).split("/");
-    List<String> result = new ArrayList<>();
-    for (String part : parts) {
-      if (part.isEmpty()) {
-        throw new EmptySegmentException(value);
+    PackageUrlScanner scanner = new PackageUrlScanner();
+    List<String> result = parseSegments(value, 0, value.length(), scanner, invalids);
+    if (scanner.failure != null) {
+      throw PackageUrlParseResult.invalid(value, scanner).toException(true);
+    }
+    return result;
+  }
+
+  /**
+   * Parse segments from given range of value; returns {@code null} with failure details recorded on the scanner when
+   * invalid.
+   *
+   * A single leading and trailing {@code /} is stripped; further trailing {@code /} are ignored.
+   */
+  @Nullable
+  static List<String> parseSegments(final CharSequence value,
+                                    final int start,
+                                    final int end,
+                                    final PackageUrlScanner scanner,
+                                    final String... invalids)
+  {
+    int from = start;
+    int to = end;
+    if (from < to && value.charAt(from) == '/') {
+      from++;
+    }
+    if (from < to && value.charAt(to - 1) == '/') {
+      to--;
+    }
+    if (from == to) {
+      scanner.fail(PackageUrlParseResult.Reason.EMPTY_SEGMENT, start, start, end, null);
+      return null;
+    }
+    while (to > from && value.charAt(to - 1) == '/') {
+      to--;
+    }
+    if (from == to) {
+      return null;
+    }
+
+    int count = 1;
+    for (int i = from; i < to; i++) {
+      if (value.charAt(i) == '/') {
+        count++;
+      }
+    }
+    String[] result = new String[count];
+    int index = 0;
+    int i = from;
+    while (true) {
+      int slash = indexOf(value, '/', i, to);
+      if (slash == i) {
+        scanner.fail(PackageUrlParseResult.Reason.EMPTY_SEGMENT, i, start, end, null);
+        return null;
+      }
+      String part = decode(value, i, slash, start, end, scanner);
+      if (part == null) {
+        return null;
       }
-      part = PercentEncoding.decode(part);
 
       // decoded segment must not contain a segment separator
-      if (part.contains("/")) {
-        throw new IllegalSegmentContentException("/", value);
+      if (part.indexOf('/') != -1) {
+        scanner.fail(PackageUrlParseResult.Reason.ILLEGAL_SEGMENT_CONTENT, i, start, end, "/");
+        return null;
       }
 
       // decoded segment must not contain any invalid values
       for (String invalid : invalids) {
         if (part.equals(invalid)) {
-          throw new IllegalSegmentContentException(invalid, value);
+          scanner.fail(PackageUrlParseResult.Reason.ILLEGAL_SEGMENT_CONTENT, i, start, end, invalid);
+          return null;
         }
       }
-      result.add(part);
+      result[index++] = part;
+
+      if (slash == to) {
+        return SegmentList.of(result);
+      }
+      i = slash + 1;
     }
+  }
 
-    return result.isEmpty() ? null : result;
+  /**
+   * Decode given range of value; returns {@code null} with failure details for the given component range recorded on
+   * the scanner when malformed.
+   */
+  @Nullable
+  private static String decode(final CharSequence value,
+                               final int start,
+                               final int end,
+                               final int componentStart,
+                               final int componentEnd,
+                               final PackageUrlScanner scanner)
+  {
+    String encoded = value.subSequence(start, end).toString();
+    String result = PercentEncoding.tryDecode(encoded);
+    if (result == null) {
+      scanner.fail(PackageUrlParseResult.Reason.MALFORMED_ESCAPE, start + PercentEncoding.malformedEscapeIndex(encoded),
+          componentStart, componentEnd, encoded);
+    }
+    return result;
   }
 
   /**
-   * Strip leading and trailing {@code /} chars from value.
+   * Count of given char in range of value.
    */
-  private static String stripSlashes(String value) {
-    if (value.charAt(0) == '/') {
-      value = value.substring(1);
+  private static int count(final CharSequence value, final char c, final int start, final int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      if (value.charAt(i) == c) {
+        result++;
+      }
     }
-    if (value.charAt(value.length() - 1) == '/') {
-      value = value.substring(0, value.length() - 1);
+    return result;
+  }
+
+  /**
+   * Index of given char in range of value; or {@code end} if not found.
+   */
+  private static int indexOf(final CharSequence value, final char c, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (value.charAt(i) == c) {
+        return i;
+      }
     }
-    return value;
+    return end;
   }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import javax.annotation.concurrent.Immutable;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Maps {@link PackageUrl} to one of a number of partitions with consistent hashing.
+ *
+ * Package-urls are partitioned by their {@link PackageUrlFingerprint#ofVersionless64(PackageUrl) versionless
+ * fingerprint}, so all versions of a package map to the same partition.  Partitions are assigned with jump consistent
+ * hashing: partitions are stable across JVMs, and when the number of partitions grows from {@code n} to {@code n + 1}
+ * only about {@code 1/(n + 1)} of the package-urls move, all to the new partition.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+public final class PackageUrlPartitioner
+{
+  private final int partitions;
+
+  private PackageUrlPartitioner(final int partitions) {
+    this.partitions = partitions;
+  }
+
+  /**
+   * Partitioner of given positive number of partitions.
+   */
+  public static PackageUrlPartitioner of(final int partitions) {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("Partitions must be positive: " + partitions);
+    }
+    return new PackageUrlPartitioner(partitions);
+  }
+
+  public int getPartitions() {
+    return partitions;
+  }
+
+  /**
+   * Partition of given package-url; from {@code 0} and less than {@link #getPartitions()}.
+   */
+  public int partition(final PackageUrl purl) {
+    requireNonNull(purl);
+    return partition(PackageUrlFingerprint.ofVersionless64(purl));
+  }
+
+  /**
+   * Partition of given fingerprint; from {@code 0} and less than {@link #getPartitions()}.
+   */
+  public int partition(final long fingerprint) {
+    // jump consistent hash; Lamping and Veach, 2014
+    long key = fingerprint;
+    long b = -1;
+    long j = 0;
+    while (j < partitions) {
+      b = j;
+      key = key * 2862933555777941757L + 1;
+      j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+    }
+    return (int) b;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{partitions=" + partitions + "}";
+  }
+}
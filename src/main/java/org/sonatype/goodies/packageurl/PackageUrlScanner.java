@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.packageurl.PackageUrlParseResult.Reason;
+
+/**
+ * Single-pass {@link PackageUrl} delimiter scanner.
+ *
+ * Locates the component ranges of a package-url exactly as {@link PackageUrlParser#PURL_SCHEME_PATTERN} and
+ * {@link PackageUrlParser#PURL_SCHEMELESS_PATTERN} would, including the lazy matching of version and qualifier values,
+ * but without the {@link java.util.regex.Matcher} and its backtracking.
+ *
+ * Component ranges are exposed as {@code start} (inclusive) and {@code end} (exclusive) offsets;
+ * {@code start} is {@code -1} when the optional component is absent.
+ *
+ * When scanning, or later parsing of the components, fails the {@link #failure} details are recorded instead of
+ * throwing; see {@link PackageUrlParseResult}.
+ *
+ * Instances are mutable and not thread-safe; a scanner may be reused by calling {@link #scan(CharSequence)} again.
+ *
+ * @since 1.3.0
+ */
+final class PackageUrlScanner
+{
+  int typeStart;
+
+  int typeEnd;
+
+  int namespaceStart;
+
+  int namespaceEnd;
+
+  int nameStart;
+
+  int nameEnd;
+
+  int versionStart;
+
+  int versionEnd;
+
+  int qualifiersStart;
+
+  int qualifiersEnd;
+
+  int subpathStart;
+
+  int subpathEnd;
+
+  /**
+   * Failure reason; or {@code null} if there was no failure.
+   */
+  @Nullable
+  Reason failure;
+
+  /**
+   * Offset in value where the failure was detected.
+   */
+  int failureOffset;
+
+  /**
+   * Range of the component which failed.
+   */
+  int failureStart;
+
+  int failureEnd;
+
+  /**
+   * Offending content of the component which failed, if any.
+   */
+  @Nullable
+  String failureDetail;
+
+  private CharSequence value;
+
+  private int length;
+
+  /**
+   * Index of the last line-terminator in value; {@code .} in the patterns does not match these.
+   */
+  private int lastLineTerminator;
+
+  /**
+   * Scan given value; returns {@code false} if the value does not have the shape of a package-url.
+   */
+  boolean scan(final CharSequence value) {
+    this.value = value;
+    this.length = value.length();
+    this.lastLineTerminator = -1;
+    for (int i = length - 1; i >= 0; i--) {
+      if (isLineTerminator(value.charAt(i))) {
+        lastLineTerminator = i;
+        break;
+      }
+    }
+    namespaceStart = namespaceEnd = -1;
+    versionStart = versionEnd = -1;
+    qualifiersStart = qualifiersEnd = -1;
+    subpathStart = subpathEnd = -1;
+    failure = null;
+    failureDetail = null;
+
+    try {
+      if (startsWithScheme(value) ? scanScheme() : scanSchemeless()) {
+        return true;
+      }
+      fail(Reason.INVALID_SYNTAX, failureOffset, 0, length, null);
+      return false;
+    }
+    finally {
+      this.value = null;
+    }
+  }
+
+  /**
+   * Check if value starts with {@code pkg:}.
+   */
+  static boolean startsWithScheme(final CharSequence value) {
+    String prefix = PackageUrl.SCHEME;
+    int size = prefix.length();
+    if (value.length() <= size || value.charAt(size) != ':') {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (value.charAt(i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Record failure details.
+   */
+  void fail(final Reason reason, final int offset, final int start, final int end, @Nullable final String detail) {
+    this.failure = reason;
+    this.failureOffset = offset;
+    this.failureStart = start;
+    this.failureEnd = end;
+    this.failureDetail = detail;
+  }
+
+  /**
+   * Record the offset of a syntax failure; always returns {@code false}.
+   */
+  private boolean syntaxError(final int offset) {
+    failureOffset = offset;
+    return false;
+  }
+
+  /**
+   * {@code pkg:(/)*type/...}
+   */
+  private boolean scanScheme() {
+    int i = PackageUrl.SCHEME.length() + 1;
+    while (i < length && value.charAt(i) == '/') {
+      i++;
+    }
+    i = scanType(i);
+    if (i == -1) {
+      return syntaxError(typeStart);
+    }
+    if (i == length || value.charAt(i) != '/') {
+      return syntaxError(i);
+    }
+    return scanRemainder(i + 1, i + 1);
+  }
+
+  /**
+   * {@code type:(//)?...}
+   */
+  private boolean scanSchemeless() {
+    int i = scanType(0);
+    if (i == -1) {
+      return syntaxError(typeStart);
+    }
+    if (i == length || value.charAt(i) != ':') {
+      return syntaxError(i);
+    }
+    i++;
+    if (i + 1 < length && value.charAt(i) == '/' && value.charAt(i + 1) == '/') {
+      // leading "//" is optional; the pattern will fall back to treating it as part of namespace
+      return scanRemainder(i + 2, i);
+    }
+    return scanRemainder(i, i);
+  }
+
+  /**
+   * Scan type starting at given index; returns the index after the type, or {@code -1} when invalid.
+   */
+  private int scanType(final int start) {
+    typeStart = start;
+    if (start == length || !isAlpha(value.charAt(start))) {
+      return -1;
+    }
+    int i = start + 1;
+    while (i < length && isTypeChar(value.charAt(i))) {
+      i++;
+    }
+    typeEnd = i;
+    return i;
+  }
+
+  /**
+   * Scan {@code ((namespace)/)?name(@version)?(?qualifiers)?(#subpath)?} starting at given index.
+   *
+   * If the namespace and name can not be split at {@code start}, retry from {@code fallback}.
+   */
+  private boolean scanRemainder(final int start, final int fallback) {
+    // namespace and name can not contain '@', '?' or '#'
+    int end = start;
+    while (end < length) {
+      char c = value.charAt(end);
+      if (c == '@' || c == '?' || c == '#') {
+        break;
+      }
+      end++;
+    }
+
+    if (!splitNamespaceAndName(start, end) && (fallback == start || !splitNamespaceAndName(fallback, end))) {
+      return syntaxError(start);
+    }
+
+    if (end < length && value.charAt(end) == '@') {
+      return scanVersion(end + 1);
+    }
+    return scanTail(end);
+  }
+
+  /**
+   * Split {@code ((namespace)/)?name} where name is the last non-empty segment.
+   */
+  private boolean splitNamespaceAndName(final int start, final int end) {
+    int slash = -1;
+    for (int i = end - 1; i >= start; i--) {
+      if (value.charAt(i) == '/') {
+        slash = i;
+        break;
+      }
+    }
+    if (slash == end - 1 || start == end) {
+      // name must not be empty
+      return false;
+    }
+    if (slash == -1) {
+      namespaceStart = namespaceEnd = -1;
+      nameStart = start;
+    }
+    else {
+      if (slash == start) {
+        // namespace must not be empty
+        return false;
+      }
+      namespaceStart = start;
+      namespaceEnd = slash;
+      nameStart = slash + 1;
+    }
+    nameEnd = end;
+    return true;
+  }
+
+  /**
+   * Version is the shortest non-empty value which allows the remaining qualifiers and subpath to match.
+   *
+   * Candidate ends are tried in a single forward pass: a subpath candidate is checked in constant time, and when the
+   * qualifiers fail to match from a {@code ?} they also fail from every later {@code ?} before the failure offset,
+   * so those candidates are skipped and no part of the value is scanned more than twice.
+   */
+  private boolean scanVersion(final int start) {
+    versionStart = start;
+    int retryFrom = start + 1;
+    for (int end = start + 1; end <= length; end++) {
+      if (isLineTerminator(value.charAt(end - 1))) {
+        return syntaxError(end - 1);
+      }
+      if (end == length) {
+        versionEnd = end;
+        return true;
+      }
+      char c = value.charAt(end);
+      if (c == '#') {
+        if (scanSubpath(end + 1)) {
+          versionEnd = end;
+          return true;
+        }
+      }
+      else if (c == '?' && end >= retryFrom) {
+        if (scanQualifiers(end + 1)) {
+          versionEnd = end;
+          return true;
+        }
+        retryFrom = failureOffset;
+      }
+    }
+    return syntaxError(length);
+  }
+
+  /**
+   * Scan {@code (?qualifiers)?(#subpath)?} at given index which must consume the remainder of the value.
+   */
+  private boolean scanTail(final int start) {
+    qualifiersStart = qualifiersEnd = -1;
+    subpathStart = subpathEnd = -1;
+    if (start == length) {
+      return true;
+    }
+    char c = value.charAt(start);
+    if (c == '#') {
+      return scanSubpath(start + 1);
+    }
+    if (c == '?') {
+      return scanQualifiers(start + 1);
+    }
+    return syntaxError(start);
+  }
+
+  /**
+   * Subpath is any non-empty value without line-terminators.
+   */
+  private boolean scanSubpath(final int start) {
+    if (start < length && lastLineTerminator < start) {
+      subpathStart = start;
+      subpathEnd = length;
+      return true;
+    }
+    return syntaxError(start < length ? lastLineTerminator : start);
+  }
+
+  /**
+   * Scan {@code key=value(&key=value)*} with values matched lazily, so the first {@code #} that can start a subpath
+   * terminates the qualifiers.
+   */
+  private boolean scanQualifiers(final int start) {
+    int i = start;
+    while (true) {
+      // key
+      if (i == length || !isQualifierKeyStart(value.charAt(i))) {
+        return syntaxError(i);
+      }
+      i++;
+      while (i < length && isQualifierKeyChar(value.charAt(i))) {
+        i++;
+      }
+      if (i == length || value.charAt(i) != '=') {
+        return syntaxError(i);
+      }
+      i++;
+
+      // value
+      while (true) {
+        if (i == length) {
+          qualifiersStart = start;
+          qualifiersEnd = i;
+          return true;
+        }
+        char c = value.charAt(i);
+        if (c == '&') {
+          break;
+        }
+        if (c == '#' && scanSubpath(i + 1)) {
+          qualifiersStart = start;
+          qualifiersEnd = i;
+          return true;
+        }
+        i++;
+      }
+      i++;
+    }
+  }
+
+  //
+  // Character classes
+  //
+
+  private static boolean isAlpha(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * {@code [a-zA-Z\d.+-]}
+   */
+  private static boolean isTypeChar(final char c) {
+    return isAlpha(c) || isDigit(c) || c == '.' || c == '+' || c == '-';
+  }
+
+  /**
+   * {@code [a-zA-Z.\-_]}
+   */
+  private static boolean isQualifierKeyStart(final char c) {
+    return isAlpha(c) || c == '.' || c == '-' || c == '_';
+  }
+
+  /**
+   * {@code [a-zA-Z\d.\-_]}
+   */
+  private static boolean isQualifierKeyChar(final char c) {
+    return isQualifierKeyStart(c) || isDigit(c);
+  }
+
+  /**
+   * Characters not matched by {@code .} in a {@link java.util.regex.Pattern} without flags.
+   */
+  private static boolean isLineTerminator(final char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
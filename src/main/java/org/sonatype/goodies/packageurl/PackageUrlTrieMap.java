@@ -0,0 +1,699 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Map of {@link PackageUrl} keys held as a trie of their components.
+ *
+ * Keys are stored by path; type, namespace segments, name and version, with qualifiers and subpath at the leaves.
+ * Keys sharing a prefix share its nodes and strings, and the keys themselves are not retained; iterated keys are
+ * re-created from their path.  Children are held in sorted arrays, so iteration is ordered by components, and
+ * prefixes can be iterated with {@link #ofType(String)}, {@link #withNamespacePrefix(String, List)} and
+ * {@link #versionsOf(String, List, String)}.
+ *
+ * Instances are not thread-safe.  Iterators support removal and are fail-fast.
+ *
+ * @see PackageUrlTrieSet
+ * @since 1.3.0
+ */
+@NotThreadSafe
+public final class PackageUrlTrieMap<V>
+    extends AbstractMap<PackageUrl, V>
+{
+  private static final Branch[] NO_BRANCHES = {};
+
+  private static final Name[] NO_NAMES = {};
+
+  private static final Version[] NO_VERSIONS = {};
+
+  private static final Object[] NO_LEAVES = {};
+
+  /**
+   * Marks absent values; distinct from {@code null} values.
+   */
+  private static final Object NONE = new Object();
+
+  /**
+   * Branches of root are types.
+   */
+  private final Branch root = new Branch(null);
+
+  private int size;
+
+  private int modCount;
+
+  @Nullable
+  private transient Set<Entry<PackageUrl, V>> entrySet;
+
+  public PackageUrlTrieMap() {
+    // empty
+  }
+
+  public PackageUrlTrieMap(final Map<PackageUrl, ? extends V> map) {
+    putAll(map);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return find(key) != NONE;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(final Object key) {
+    Object result = find(key);
+    return result != NONE ? (V) result : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(final PackageUrl key, final V value) {
+    requireNonNull(key);
+    Branch branch = child(root, key.getType(), true);
+    List<String> namespace = key.getNamespace();
+    for (int i = 0, length = pathLength(namespace); i < length; i++) {
+      branch = child(branch, segmentAt(namespace, i), true);
+    }
+
+    int index = search(branch.names, key.getName());
+    if (index < 0) {
+      index = -(index + 1);
+      branch.names = insert(branch.names, index, new Name(key.getName()));
+      if (branch.names.length == 1) {
+        branch.namespace = namespace != null ? SegmentList.copyOf(namespace) : null;
+      }
+    }
+    Name name = branch.names[index];
+
+    index = search(name.versions, key.getVersion());
+    if (index < 0) {
+      index = -(index + 1);
+      name.versions = insert(name.versions, index, new Version(key.getVersion()));
+    }
+    Version version = name.versions[index];
+
+    index = leafIndex(version.leaves, key);
+    if (index >= 0) {
+      Object previous = version.leaves[index + 2];
+      version.leaves[index + 2] = value;
+      return (V) previous;
+    }
+    Object[] leaves = Arrays.copyOf(version.leaves, version.leaves.length + 3);
+    leaves[leaves.length - 3] = key.getQualifiers();
+    leaves[leaves.length - 2] = key.getSubpath();
+    leaves[leaves.length - 1] = value;
+    version.leaves = leaves;
+    size++;
+    modCount++;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(final Object key) {
+    if (!(key instanceof PackageUrl)) {
+      return null;
+    }
+    PackageUrl purl = (PackageUrl) key;
+    int index = search(root.branches, purl.getType());
+    if (index < 0) {
+      return null;
+    }
+    Object result = remove(root.branches[index], purl, 0);
+    if (result == NONE) {
+      return null;
+    }
+    if (root.branches[index].isEmpty()) {
+      root.branches = removeAt(root.branches, index);
+    }
+    size--;
+    modCount++;
+    return (V) result;
+  }
+
+  /**
+   * Remove key below given branch at given namespace depth; emptied nodes are pruned.
+   */
+  private static Object remove(final Branch branch, final PackageUrl key, final int depth) {
+    List<String> namespace = key.getNamespace();
+    if (depth < pathLength(namespace)) {
+      int index = search(branch.branches, segmentAt(namespace, depth));
+      if (index < 0) {
+        return NONE;
+      }
+      Object result = remove(branch.branches[index], key, depth + 1);
+      if (result != NONE && branch.branches[index].isEmpty()) {
+        branch.branches = removeAt(branch.branches, index);
+      }
+      return result;
+    }
+
+    int nameIndex = search(branch.names, key.getName());
+    if (nameIndex < 0) {
+      return NONE;
+    }
+    Name name = branch.names[nameIndex];
+    int versionIndex = search(name.versions, key.getVersion());
+    if (versionIndex < 0) {
+      return NONE;
+    }
+    Version version = name.versions[versionIndex];
+    int index = leafIndex(version.leaves, key);
+    if (index < 0) {
+      return NONE;
+    }
+
+    Object result = version.leaves[index + 2];
+    if (version.leaves.length == 3) {
+      name.versions = removeAt(name.versions, versionIndex);
+      if (name.versions.length == 0) {
+        branch.names = removeAt(branch.names, nameIndex);
+      }
+    }
+    else {
+      Object[] leaves = new Object[version.leaves.length - 3];
+      System.arraycopy(version.leaves, 0, leaves, 0, index);
+      System.arraycopy(version.leaves, index + 3, leaves, index, leaves.length - index);
+      version.leaves = leaves;
+    }
+    return result;
+  }
+
+  @Override
+  public void clear() {
+    root.branches = NO_BRANCHES;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public Set<Entry<PackageUrl, V>> entrySet() {
+    Set<Entry<PackageUrl, V>> result = entrySet;
+    if (result == null) {
+      entrySet = result = new EntrySet();
+    }
+    return result;
+  }
+
+  //
+  // Prefix iteration
+  //
+
+  /**
+   * Entries of given type.
+   */
+  public Stream<Entry<PackageUrl, V>> ofType(final String type) {
+    requireNonNull(type);
+    Branch branch = child(root, type, false);
+    return stream(branch != null ? new EntryIterator(branch, type) : null);
+  }
+
+  /**
+   * Entries of given type whose namespace starts with given segments; an empty prefix matches all namespaces.
+   */
+  public Stream<Entry<PackageUrl, V>> withNamespacePrefix(final String type, final List<String> prefix) {
+    requireNonNull(type);
+    requireNonNull(prefix);
+    if (prefix.isEmpty()) {
+      return ofType(type);
+    }
+    Branch branch = child(root, type, false);
+    for (int i = 0; branch != null && i < prefix.size(); i++) {
+      branch = child(branch, requireNonNull(prefix.get(i)), false);
+    }
+    return stream(branch != null ? new EntryIterator(branch, type) : null);
+  }
+
+  /**
+   * Entries of given type, namespace and name; in version order.
+   */
+  public Stream<Entry<PackageUrl, V>> versionsOf(final String type,
+                                                 @Nullable final List<String> namespace,
+                                                 final String name)
+  {
+    requireNonNull(type);
+    requireNonNull(name);
+    Branch branch = child(root, type, false);
+    for (int i = 0, length = pathLength(namespace); branch != null && i < length; i++) {
+      branch = child(branch, segmentAt(namespace, i), false);
+    }
+    if (branch == null) {
+      return Stream.empty();
+    }
+    int index = search(branch.names, name);
+    return stream(index >= 0 ? new EntryIterator(branch, type, branch.names[index]) : null);
+  }
+
+  private Stream<Entry<PackageUrl, V>> stream(@Nullable final EntryIterator iterator) {
+    if (iterator == null) {
+      return Stream.empty();
+    }
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+  }
+
+  //
+  // Navigation
+  //
+
+  /**
+   * Value of given key; or {@link #NONE} if absent.
+   */
+  private Object find(final Object key) {
+    if (!(key instanceof PackageUrl)) {
+      return NONE;
+    }
+    PackageUrl purl = (PackageUrl) key;
+    Branch branch = child(root, purl.getType(), false);
+    List<String> namespace = purl.getNamespace();
+    for (int i = 0, length = pathLength(namespace); branch != null && i < length; i++) {
+      branch = child(branch, segmentAt(namespace, i), false);
+    }
+    if (branch == null) {
+      return NONE;
+    }
+    int index = search(branch.names, purl.getName());
+    if (index < 0) {
+      return NONE;
+    }
+    Name name = branch.names[index];
+    index = search(name.versions, purl.getVersion());
+    if (index < 0) {
+      return NONE;
+    }
+    Object[] leaves = name.versions[index].leaves;
+    index = leafIndex(leaves, purl);
+    return index >= 0 ? leaves[index + 2] : NONE;
+  }
+
+  /**
+   * Child branch with given key; created if requested.
+   */
+  @Nullable
+  private static Branch child(final Branch branch, @Nullable final String key, final boolean create) {
+    int index = search(branch.branches, key);
+    if (index >= 0) {
+      return branch.branches[index];
+    }
+    if (!create) {
+      return null;
+    }
+    Branch result = new Branch(key);
+    branch.branches = insert(branch.branches, -(index + 1), result);
+    return result;
+  }
+
+  /**
+   * Number of branches for namespace below type; an empty namespace is one branch with {@code null} key, which is
+   * distinct from an absent namespace.
+   */
+  private static int pathLength(@Nullable final List<String> namespace) {
+    if (namespace == null) {
+      return 0;
+    }
+    return namespace.isEmpty() ? 1 : namespace.size();
+  }
+
+  @Nullable
+  private static String segmentAt(final List<String> namespace, final int index) {
+    return namespace.isEmpty() ? null : namespace.get(index);
+  }
+
+  /**
+   * Index of leaf triple of given key; or {@code -1}.
+   */
+  private static int leafIndex(final Object[] leaves, final PackageUrl key) {
+    for (int i = 0; i < leaves.length; i += 3) {
+      if (Objects.equals(leaves[i], key.getQualifiers()) && Objects.equals(leaves[i + 1], key.getSubpath())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Binary search of nodes by key; {@code null} orders first.
+   *
+   * @return index of key; or {@code -(insertion point) - 1}.
+   */
+  private static int search(final Node[] nodes, @Nullable final String key) {
+    int low = 0;
+    int high = nodes.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int result = compare(nodes[mid].key, key);
+      if (result < 0) {
+        low = mid + 1;
+      }
+      else if (result > 0) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static int compare(@Nullable final String a, @Nullable final String b) {
+    if (a == null) {
+      return b == null ? 0 : -1;
+    }
+    return b == null ? 1 : a.compareTo(b);
+  }
+
+  //
+  // Copy-on-write arrays; iterators traverse the arrays they started with
+  //
+
+  private static <T extends Node> T[] insert(final T[] nodes, final int index, final T node) {
+    T[] result = Arrays.copyOf(nodes, nodes.length + 1);
+    System.arraycopy(nodes, index, result, index + 1, nodes.length - index);
+    result[index] = node;
+    return result;
+  }
+
+  private static <T extends Node> T[] removeAt(final T[] nodes, final int index) {
+    T[] result = Arrays.copyOf(nodes, nodes.length - 1);
+    System.arraycopy(nodes, index + 1, result, index, result.length - index);
+    return result;
+  }
+
+  //
+  // Nodes
+  //
+
+  private abstract static class Node
+  {
+    @Nullable
+    final String key;
+
+    Node(@Nullable final String key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Type or namespace segment.
+   */
+  private static final class Branch
+      extends Node
+  {
+    Branch[] branches = NO_BRANCHES;
+
+    Name[] names = NO_NAMES;
+
+    /**
+     * Namespace of names; shared by their keys.
+     */
+    @Nullable
+    SegmentList namespace;
+
+    Branch(@Nullable final String key) {
+      super(key);
+    }
+
+    boolean isEmpty() {
+      return branches.length == 0 && names.length == 0;
+    }
+  }
+
+  private static final class Name
+      extends Node
+  {
+    Version[] versions = NO_VERSIONS;
+
+    Name(final String key) {
+      super(key);
+    }
+  }
+
+  private static final class Version
+      extends Node
+  {
+    /**
+     * Triples of qualifiers, subpath and value.
+     */
+    Object[] leaves = NO_LEAVES;
+
+    Version(@Nullable final String key) {
+      super(key);
+    }
+  }
+
+  //
+  // Views
+  //
+
+  private final class EntrySet
+      extends AbstractSet<Entry<PackageUrl, V>>
+  {
+    @Override
+    public Iterator<Entry<PackageUrl, V>> iterator() {
+      return new EntryIterator(root, null);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Object value = find(entry.getKey());
+      return value != NONE && Objects.equals(value, entry.getValue());
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      if (contains(o)) {
+        PackageUrlTrieMap.this.remove(((Entry<?, ?>) o).getKey());
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void clear() {
+      PackageUrlTrieMap.this.clear();
+    }
+  }
+
+  /**
+   * Depth-first iteration of a branch; names before child branches.
+   */
+  private final class EntryIterator
+      implements Iterator<Entry<PackageUrl, V>>
+  {
+    /**
+     * Child branch arrays pending iteration, with their next index.
+     */
+    private final Deque<Branch[]> pending = new ArrayDeque<>();
+
+    private final Deque<int[]> indexes = new ArrayDeque<>();
+
+    /**
+     * Branch arrays of root are types.
+     */
+    @Nullable
+    private Branch[] types;
+
+    /**
+     * Type of current branch; {@code null} when iterating from root, until entering a type.
+     */
+    @Nullable
+    private String type;
+
+    private Branch branch;
+
+    private Name[] names = NO_NAMES;
+
+    private int nameIndex;
+
+    private Name name;
+
+    private Version[] versions = NO_VERSIONS;
+
+    private int versionIndex;
+
+    private Version version;
+
+    private Object[] leaves = NO_LEAVES;
+
+    private int leafIndex;
+
+    @Nullable
+    private Entry<PackageUrl, V> next;
+
+    @Nullable
+    private PackageUrl last;
+
+    private int expectedModCount = modCount;
+
+    /**
+     * Iterate given branch; of given type, or root if {@code null}.
+     */
+    EntryIterator(final Branch branch, @Nullable final String type) {
+      this.type = type;
+      enter(branch);
+    }
+
+    /**
+     * Iterate given name of given branch.
+     */
+    EntryIterator(final Branch branch, final String type, final Name name) {
+      this.type = type;
+      this.branch = branch;
+      this.names = new Name[]{name};
+    }
+
+    private void enter(final Branch branch) {
+      this.branch = branch;
+      names = branch.names;
+      nameIndex = 0;
+      if (branch == root) {
+        types = branch.branches;
+      }
+      if (branch.branches.length != 0) {
+        pending.push(branch.branches);
+        indexes.push(new int[]{0});
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next == null) {
+        next = computeNext();
+      }
+      return next != null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Entry<PackageUrl, V> computeNext() {
+      while (true) {
+        if (leafIndex < leaves.length) {
+          PackageUrl key = PackageUrl.ofUnmodifiable(type, branch.namespace, name.key, version.key,
+              (QualifierMap) leaves[leafIndex], (SegmentList) leaves[leafIndex + 1]);
+          V value = (V) leaves[leafIndex + 2];
+          leafIndex += 3;
+          return new TrieEntry(key, value);
+        }
+        if (versionIndex < versions.length) {
+          version = versions[versionIndex++];
+          leaves = version.leaves;
+          leafIndex = 0;
+          continue;
+        }
+        if (nameIndex < names.length) {
+          name = names[nameIndex++];
+          versions = name.versions;
+          versionIndex = 0;
+          continue;
+        }
+        if (pending.isEmpty()) {
+          return null;
+        }
+        Branch[] branches = pending.peek();
+        int[] index = indexes.peek();
+        if (index[0] == branches.length) {
+          pending.pop();
+          indexes.pop();
+          continue;
+        }
+        Branch child = branches[index[0]++];
+        if (branches == types) {
+          type = child.key;
+        }
+        enter(child);
+      }
+    }
+
+    @Override
+    public Entry<PackageUrl, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<PackageUrl, V> result = next;
+      next = null;
+      last = result.getKey();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      PackageUrlTrieMap.this.remove(last);
+      expectedModCount = modCount;
+      last = null;
+    }
+  }
+
+  /**
+   * Entry; values are set through the map.
+   */
+  private final class TrieEntry
+      extends SimpleEntry<PackageUrl, V>
+  {
+    private static final long serialVersionUID = 1L;
+
+    TrieEntry(final PackageUrl key, final V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(final V value) {
+      put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+}
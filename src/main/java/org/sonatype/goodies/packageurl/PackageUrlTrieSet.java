@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Set of {@link PackageUrl} held as a trie of their components.
+ *
+ * @see PackageUrlTrieMap
+ * @since 1.3.0
+ */
+@NotThreadSafe
+public final class PackageUrlTrieSet
+    extends AbstractSet<PackageUrl>
+{
+  private final PackageUrlTrieMap<Boolean> map = new PackageUrlTrieMap<>();
+
+  public PackageUrlTrieSet() {
+    // empty
+  }
+
+  public PackageUrlTrieSet(final Collection<PackageUrl> purls) {
+    addAll(purls);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public boolean contains(final Object o) {
+    return map.containsKey(o);
+  }
+
+  @Override
+  public boolean add(final PackageUrl purl) {
+    return map.put(purl, Boolean.TRUE) == null;
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    return map.remove(o) != null;
+  }
+
+  @Override
+  public void clear() {
+    map.clear();
+  }
+
+  @Override
+  public Iterator<PackageUrl> iterator() {
+    return map.keySet().iterator();
+  }
+
+  /**
+   * Elements of given type.
+   *
+   * @see PackageUrlTrieMap#ofType(String)
+   */
+  public Stream<PackageUrl> ofType(final String type) {
+    return map.ofType(type).map(Entry::getKey);
+  }
+
+  /**
+   * Elements of given type whose namespace starts with given segments.
+   *
+   * @see PackageUrlTrieMap#withNamespacePrefix(String, List)
+   */
+  public Stream<PackageUrl> withNamespacePrefix(final String type, final List<String> prefix) {
+    return map.withNamespacePrefix(type, prefix).map(Entry::getKey);
+  }
+
+  /**
+   * Elements of given type, namespace and name; in version order.
+   *
+   * @see PackageUrlTrieMap#versionsOf(String, List, String)
+   */
+  public Stream<PackageUrl> versionsOf(final String type, @Nullable final List<String> namespace, final String name) {
+    return map.versionsOf(type, namespace, name).map(Entry::getKey);
+  }
+}
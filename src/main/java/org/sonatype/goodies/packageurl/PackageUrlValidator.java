@@ -14,13 +14,15 @@ package org.sonatype.goodies.packageurl;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
 
 /**
  * {@link PackageUrl} validator.
  *
+ * Checks with precomputed ASCII tables accept exactly the values matched by the corresponding
+ * {@link PackageUrlParser} patterns, with-out the {@link java.util.regex.Matcher}.
+ *
  * @since 1.1.0
  */
 class PackageUrlValidator
@@ -29,26 +31,94 @@ class PackageUrlValidator
     // empty
   }
 
-  private static final Pattern TYPE_PATTERN = Pattern.compile(PackageUrlParser.TYPE);
-
-  private static final Pattern NAMESPACE_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.NAMESPACE_SEGMENT);
+  /**
+   * {@link PackageUrlParser#TYPE} first char; {@code [a-zA-Z]}.
+   */
+  private static final boolean[] TYPE_START = new boolean[128];
 
-  private static final Pattern NAME_PATTERN = Pattern.compile(PackageUrlParser.NAME);
+  /**
+   * {@link PackageUrlParser#TYPE} remaining chars; {@code [a-zA-Z\d.+-]}.
+   */
+  private static final boolean[] TYPE_PART = new boolean[128];
 
-  private static final Pattern VERSION_PATTERN = Pattern.compile(PackageUrlParser.VERSION);
+  /**
+   * {@link PackageUrlParser#QUALIFIER_KEY} first char; {@code [a-zA-Z.\-_]}.
+   */
+  private static final boolean[] QUALIFIER_KEY_START = new boolean[128];
 
-  private static final Pattern QUALIFIER_KEY_PATTERN = Pattern.compile(PackageUrlParser.QUALIFIER_KEY);
+  /**
+   * {@link PackageUrlParser#QUALIFIER_KEY} remaining chars; {@code [a-zA-Z\d.\-_]}.
+   */
+  private static final boolean[] QUALIFIER_KEY_PART = new boolean[128];
 
-  private static final Pattern QUALIFIER_VALUE_PATTERN = Pattern.compile(PackageUrlParser.QUALIFIER_VALUE);
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      TYPE_START[c] = TYPE_START[c - 'a' + 'A'] = true;
+    }
+    System.arraycopy(TYPE_START, 0, TYPE_PART, 0, 128);
+    for (char c = '0'; c <= '9'; c++) {
+      TYPE_PART[c] = true;
+    }
+    TYPE_PART['.'] = TYPE_PART['+'] = TYPE_PART['-'] = true;
 
-  private static final Pattern SUBPATH_SEGMENT_PATTERN = Pattern.compile(PackageUrlParser.SUBPATH_SEGMENT);
+    System.arraycopy(TYPE_START, 0, QUALIFIER_KEY_START, 0, 128);
+    QUALIFIER_KEY_START['.'] = QUALIFIER_KEY_START['-'] = QUALIFIER_KEY_START['_'] = true;
+    System.arraycopy(QUALIFIER_KEY_START, 0, QUALIFIER_KEY_PART, 0, 128);
+    for (char c = '0'; c <= '9'; c++) {
+      QUALIFIER_KEY_PART[c] = true;
+    }
+  }
 
-  private static void validate(final String type, final Pattern pattern, final String value) {
-    if (!pattern.matcher(value).matches()) {
+  private static void validate(final String type, final boolean valid, final String value) {
+    if (!valid) {
       throw new InvalidException("Invalid " + type + ": " + value);
     }
   }
 
+  /**
+   * Check if value is a non-empty {@code start part*} sequence of the given tables.
+   */
+  private static boolean matches(final String value, final boolean[] start, final boolean[] part) {
+    int length = value.length();
+    if (length == 0 || !contains(start, value.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < length; i++) {
+      if (!contains(part, value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean contains(final boolean[] table, final char c) {
+    return c < 128 && table[c];
+  }
+
+  /**
+   * {@link PackageUrlParser#NAMESPACE_SEGMENT} and {@link PackageUrlParser#SUBPATH_SEGMENT}; {@code [^/]+}.
+   */
+  private static boolean isSegment(final String value) {
+    return !value.isEmpty() && value.indexOf('/') == -1;
+  }
+
+  /**
+   * {@link PackageUrlParser#VERSION}; {@code .+?} which does not match line-terminators.
+   */
+  private static boolean isVersion(final String value) {
+    int length = value.length();
+    if (length == 0) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Validate {@link PackageUrl#type} value.
    */
@@ -56,7 +126,7 @@ class PackageUrlValidator
     if (value == null) {
       throw new MissingComponentException("type");
     }
-    validate("type", TYPE_PATTERN, value);
+    validate("type", matches(value, TYPE_START, TYPE_PART), value);
   }
 
   /**
@@ -65,7 +135,7 @@ class PackageUrlValidator
   static void validateNamespace(@Nullable final List<String> namespace) {
     if (namespace != null) {
       for (String segment : namespace) {
-        validate("namespace.segment", NAMESPACE_SEGMENT_PATTERN, segment);
+        validate("namespace.segment", isSegment(segment), segment);
       }
     }
   }
@@ -78,7 +148,6 @@ class PackageUrlValidator
       throw new MissingComponentException("name");
     }
     // FIXME: name gets url encoding so not sure there is validation to do here?
-    //validate("name", NAME_PATTERN, value);
   }
 
   /**
@@ -86,7 +155,7 @@ class PackageUrlValidator
    */
   static void validateVersion(@Nullable final String value) {
     if (value != null) {
-      validate("version", VERSION_PATTERN, value);
+      validate("version", isVersion(value), value);
     }
   }
 
@@ -96,9 +165,9 @@ class PackageUrlValidator
   static void validateQualifiers(@Nullable final Map<String, String> qualifiers) {
     if (qualifiers != null) {
       for (Map.Entry<String, String> entry : qualifiers.entrySet()) {
-        validate("qualifier.key", QUALIFIER_KEY_PATTERN, entry.getKey());
+        String key = entry.getKey();
+        validate("qualifier.key", matches(key, QUALIFIER_KEY_START, QUALIFIER_KEY_PART), key);
         // FIXME: value is precent encoding, so not sure there is validation to do here
-        //validate("qualifier.value", QUALIFIER_VALUE_PATTERN, entry.getValue());
       }
     }
   }
@@ -109,7 +178,7 @@ class PackageUrlValidator
   static void validateSubpath(@Nullable final List<String> subpath) {
     if (subpath != null) {
       for (String segment : subpath) {
-        validate("subpath.segment", SUBPATH_SEGMENT_PATTERN, segment);
+        validate("subpath.segment", isSegment(segment), segment);
       }
     }
   }
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reusable flyweight view of a package-url within a {@link CharSequence} or {@code char[]} range.
+ *
+ * {@link #reset(CharSequence, int, int) Resetting} the view locates the components in place with-out copying or
+ * allocating; component offsets are exposed relative to the source, and component values are only decoded when
+ * requested.  {@link #toPackageUrl()} converts to an immutable {@link PackageUrl}.
+ *
+ * Only the shape of the package-url is checked when resetting; decoding a component, or converting, may still fail
+ * as {@link PackageUrlParser#parse(String)} would.  Component values follow the configuration of the parser the view
+ * was created with, including {@link PackageUrlParser#typeSpecificTransformations(boolean) type-specific
+ * transformations} and {@link PackageUrlParser#normalizers(PackageUrlNormalizers) normalizers}.
+ *
+ * Instances are mutable and not thread-safe; the source must not change while viewed.
+ *
+ * @since 1.3.0
+ */
+@NotThreadSafe
+public final class PackageUrlView
+{
+  private final PackageUrlParser parser;
+
+  private final PackageUrlScanner scanner = new PackageUrlScanner();
+
+  private final Window window = new Window();
+
+  private boolean valid;
+
+  /**
+   * Normalizer for the viewed type; resolved when resetting.
+   */
+  @Nullable
+  private PackageUrlNormalizer normalizer;
+
+  public PackageUrlView() {
+    this(new PackageUrlParser());
+  }
+
+  public PackageUrlView(final PackageUrlParser parser) {
+    this.parser = requireNonNull(parser);
+  }
+
+  /**
+   * View given value.
+   *
+   * @return {@code true} if the value has the shape of a package-url.
+   */
+  public boolean reset(final CharSequence value) {
+    return reset(value, 0, value.length());
+  }
+
+  /**
+   * View given range of value; {@code end} is exclusive.
+   *
+   * @return {@code true} if the range has the shape of a package-url.
+   */
+  public boolean reset(final CharSequence value, final int start, final int end) {
+    requireNonNull(value);
+    checkRange(start, end, value.length());
+    window.set(value, null, start, end - start);
+    return scan();
+  }
+
+  /**
+   * View given range of chars.
+   *
+   * @return {@code true} if the range has the shape of a package-url.
+   */
+  public boolean reset(final char[] chars, final int offset, final int length) {
+    requireNonNull(chars);
+    checkRange(offset, offset + length, chars.length);
+    window.set(null, chars, offset, length);
+    return scan();
+  }
+
+  private static void checkRange(final int start, final int end, final int length) {
+    if (start < 0 || end < start || end > length) {
+      throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") of length " + length);
+    }
+  }
+
+  private boolean scan() {
+    valid = scanner.scan(window);
+    normalizer = null;
+    if (valid) {
+      PackageUrlNormalizers normalizers = parser.getNormalizers();
+      if (normalizers != null) {
+        normalizer = normalizers.get(window, scanner.typeStart, scanner.typeEnd);
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Check if the viewed range has the shape of a package-url.
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  private void ensureValid() {
+    if (!valid) {
+      throw new IllegalStateException("Invalid or no value viewed");
+    }
+  }
+
+  /**
+   * Offset in source where the shape check failed; or {@code -1} if valid.
+   */
+  public int getFailureOffset() {
+    return valid ? -1 : window.offset + scanner.failureOffset;
+  }
+
+  //
+  // Offsets
+  //
+
+  private int offset(final int index) {
+    return index == -1 ? -1 : window.offset + index;
+  }
+
+  public int getTypeStart() {
+    ensureValid();
+    return offset(scanner.typeStart);
+  }
+
+  public int getTypeEnd() {
+    ensureValid();
+    return offset(scanner.typeEnd);
+  }
+
+  /**
+   * Namespace start offset in source; or {@code -1} if absent.
+   */
+  public int getNamespaceStart() {
+    ensureValid();
+    return offset(scanner.namespaceStart);
+  }
+
+  public int getNamespaceEnd() {
+    ensureValid();
+    return offset(scanner.namespaceEnd);
+  }
+
+  public int getNameStart() {
+    ensureValid();
+    return offset(scanner.nameStart);
+  }
+
+  public int getNameEnd() {
+    ensureValid();
+    return offset(scanner.nameEnd);
+  }
+
+  /**
+   * Version start offset in source; or {@code -1} if absent.
+   */
+  public int getVersionStart() {
+    ensureValid();
+    return offset(scanner.versionStart);
+  }
+
+  public int getVersionEnd() {
+    ensureValid();
+    return offset(scanner.versionEnd);
+  }
+
+  /**
+   * Qualifiers start offset in source; or {@code -1} if absent.
+   */
+  public int getQualifiersStart() {
+    ensureValid();
+    return offset(scanner.qualifiersStart);
+  }
+
+  public int getQualifiersEnd() {
+    ensureValid();
+    return offset(scanner.qualifiersEnd);
+  }
+
+  /**
+   * Subpath start offset in source; or {@code -1} if absent.
+   */
+  public int getSubpathStart() {
+    ensureValid();
+    return offset(scanner.subpathStart);
+  }
+
+  public int getSubpathEnd() {
+    ensureValid();
+    return offset(scanner.subpathEnd);
+  }
+
+  //
+  // Comparison; with-out allocation
+  //
+
+  /**
+   * Check if type is equal to given value, ignoring case.
+   */
+  public boolean typeEquals(final String type) {
+    ensureValid();
+    int length = scanner.typeEnd - scanner.typeStart;
+    if (type.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (toLowerCase(window.charAt(scanner.typeStart + i)) != toLowerCase(type.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check if {@link #getName() name} is equal to given value.
+   *
+   * Only allocates when the name contains escapes or is subject to type-specific transformations.
+   */
+  public boolean nameEquals(final String name) {
+    ensureValid();
+    if (normalizer == null && window.indexOf('%', scanner.nameStart, scanner.nameEnd) == -1) {
+      return window.regionEquals(scanner.nameStart, scanner.nameEnd, name);
+    }
+    return getName().equals(name);
+  }
+
+  //
+  // Decoded values
+  //
+
+  /**
+   * Type; lower-cased.
+   */
+  public String getType() {
+    ensureValid();
+    return PackageUrlParser.parseType(window.toString(scanner.typeStart, scanner.typeEnd));
+  }
+
+  /**
+   * Decoded namespace segments; or {@code null} if absent.
+   */
+  @Nullable
+  public List<String> getNamespace() {
+    ensureValid();
+    if (scanner.namespaceStart == -1) {
+      return null;
+    }
+    List<String> result = segments(scanner.namespaceStart, scanner.namespaceEnd);
+    return normalizer != null ? normalizer.normalizeNamespace(result) : result;
+  }
+
+  /**
+   * Decoded namespace segments joined with {@code /}; or {@code null} if absent.
+   */
+  @Nullable
+  public String getNamespaceAsString() {
+    List<String> namespace = getNamespace();
+    return namespace != null && !namespace.isEmpty() ? SegmentList.copyOf(namespace).asString() : null;
+  }
+
+  /**
+   * Decoded name.
+   */
+  public String getName() {
+    ensureValid();
+    String result = decode(scanner.nameStart, scanner.nameEnd);
+    return normalizer != null ? normalizer.normalizeName(result) : result;
+  }
+
+  /**
+   * Decoded version; or {@code null} if absent.
+   */
+  @Nullable
+  public String getVersion() {
+    ensureValid();
+    return scanner.versionStart != -1 ? decode(scanner.versionStart, scanner.versionEnd) : null;
+  }
+
+  /**
+   * Decoded value of qualifier with given key; or {@code null} if absent.
+   *
+   * Keys in the source are lower-cased before matching, duplicates are resolved and blank values are absent; as for
+   * {@link PackageUrl#getQualifier(String)} of the converted package-url.
+   */
+  @Nullable
+  public String getQualifier(final String key) {
+    ensureValid();
+    requireNonNull(key);
+    if (scanner.qualifiersStart == -1) {
+      return null;
+    }
+    // the last pair with the key as written wins; pairs with keys differing only in case are rare, and resolved as
+    // QualifierMap#normalize, which drops blank values before lower-casing keys
+    int last = -1;
+    boolean mixedCase = false;
+    int i = scanner.qualifiersStart;
+    int end = scanner.qualifiersEnd;
+    while (i < end) {
+      int amp = pairEnd(i, end);
+      int keyEnd = keyEnd(i, amp);
+      if (keyEquals(i, keyEnd, key)) {
+        mixedCase |= last != -1 && !sameKey(last, i, keyEnd - i);
+        last = i;
+      }
+      i = amp + 1;
+    }
+    if (last == -1) {
+      return null;
+    }
+    if (!mixedCase) {
+      String result = value(last, pairEnd(last, end));
+      return MoreStrings.isBlank(result) ? null : result;
+    }
+
+    Map<String, String> values = new LinkedHashMap<>();
+    for (i = scanner.qualifiersStart; i < end; ) {
+      int amp = pairEnd(i, end);
+      int keyEnd = keyEnd(i, amp);
+      if (keyEquals(i, keyEnd, key)) {
+        values.put(window.toString(i, keyEnd), value(i, amp));
+      }
+      i = amp + 1;
+    }
+    String result = null;
+    for (String value : values.values()) {
+      if (!MoreStrings.isBlank(value)) {
+        result = value;
+      }
+    }
+    return result;
+  }
+
+  private int pairEnd(final int start, final int end) {
+    int amp = window.indexOf('&', start, end);
+    return amp != -1 ? amp : end;
+  }
+
+  private int keyEnd(final int start, final int end) {
+    int eq = window.indexOf('=', start, end);
+    return eq != -1 ? eq : end;
+  }
+
+  /**
+   * Decoded value of pair in given range; empty if the pair has no value.
+   */
+  private String value(final int start, final int end) {
+    int keyEnd = keyEnd(start, end);
+    return keyEnd < end ? decode(keyEnd + 1, end) : "";
+  }
+
+  private boolean sameKey(final int a, final int b, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (window.charAt(a + i) != window.charAt(b + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean keyEquals(final int start, final int end, final String key) {
+    if (end - start != key.length()) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (toLowerCase(window.charAt(i)) != key.charAt(i - start)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Decoded subpath segments; or {@code null} if absent.
+   */
+  @Nullable
+  public List<String> getSubpath() {
+    ensureValid();
+    if (scanner.subpathStart == -1) {
+      return null;
+    }
+    return segments(scanner.subpathStart, scanner.subpathEnd, ".", "..");
+  }
+
+  /**
+   * Decoded subpath segments joined with {@code /}; or {@code null} if absent.
+   */
+  @Nullable
+  public String getSubpathAsString() {
+    List<String> subpath = getSubpath();
+    return subpath != null && !subpath.isEmpty() ? SegmentList.copyOf(subpath).asString() : null;
+  }
+
+  /**
+   * Convert to {@link PackageUrl} with the configured parser; from the located components, with-out copying or scanning
+   * the range again.
+   */
+  public PackageUrl toPackageUrl() {
+    ensureValid();
+    return parser.parseScanned(window, scanner);
+  }
+
+  /**
+   * Viewed range.
+   */
+  @Override
+  public String toString() {
+    return window.toString(0, window.length);
+  }
+
+  //
+  // Helpers
+  //
+
+  private String decode(final int start, final int end) {
+    return PercentEncoding.decode(window.toString(start, end));
+  }
+
+  @Nullable
+  private List<String> segments(final int start, final int end, final String... invalids) {
+    String value = window.toString(start, end);
+    PackageUrlScanner failure = new PackageUrlScanner();
+    List<String> result = PackageUrlParser.parseSegments(value, 0, value.length(), failure, invalids);
+    if (failure.failure != null) {
+      throw PackageUrlParseResult.invalid(value, failure).toException(true);
+    }
+    return result;
+  }
+
+  private static char toLowerCase(final char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  /**
+   * Mutable window over a {@link CharSequence} or {@code char[]} range.
+   */
+  private static final class Window
+      implements CharSequence
+  {
+    @Nullable
+    private CharSequence sequence;
+
+    @Nullable
+    private char[] chars;
+
+    private int offset;
+
+    private int length;
+
+    void set(@Nullable final CharSequence sequence, @Nullable final char[] chars, final int offset, final int length) {
+      this.sequence = sequence;
+      this.chars = chars;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      return chars != null ? chars[offset + index] : sequence.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return toString(start, end);
+    }
+
+    String toString(final int start, final int end) {
+      if (chars != null) {
+        return new String(chars, offset + start, end - start);
+      }
+      return sequence.subSequence(offset + start, offset + end).toString();
+    }
+
+    int indexOf(final char c, final int start, final int end) {
+      for (int i = start; i < end; i++) {
+        if (charAt(i) == c) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    boolean regionEquals(final int start, final int end, final String value) {
+      if (end - start != value.length()) {
+        return false;
+      }
+      for (int i = start; i < end; i++) {
+        if (charAt(i) != value.charAt(i - start)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return toString(0, length);
+    }
+  }
+}
@@ -12,11 +12,12 @@
  */
 package org.sonatype.goodies.packageurl;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 
+import javax.annotation.Nullable;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -28,6 +29,9 @@ import static java.util.Objects.requireNonNull;
  *
  * Specification; via https://en.wikipedia.org/wiki/Percent-encoding; indicates % encoding for space.
  *
+ * Encoding and decoding are table-driven single passes; when a value needs no changes the given instance is returned.
+ * Encoded values are ASCII, and may be appended directly to an {@link Appendable}.
+ *
  * @since 1.0.0
  */
 final class PercentEncoding
@@ -36,7 +40,45 @@ final class PercentEncoding
     // empty
   }
 
-  private static final String UTF_8 = StandardCharsets.UTF_8.name();
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  /**
+   * ASCII characters left unencoded in a name; {@code [a-zA-Z0-9.\-*_:~]}.
+   *
+   * This is the {@link java.net.URLEncoder} safe set plus {@code :} and {@code ~}.
+   */
+  private static final boolean[] NAME_SAFE = new boolean[128];
+
+  /**
+   * ASCII characters left unencoded elsewhere; {@link #NAME_SAFE} plus {@code /}.
+   */
+  private static final boolean[] SAFE = new boolean[128];
+
+  /**
+   * Hex digit values; {@code -1} for non-hex characters.
+   */
+  private static final byte[] HEX_VALUES = new byte[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      NAME_SAFE[c] = true;
+    }
+    for (char c = 'A'; c <= 'Z'; c++) {
+      NAME_SAFE[c] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      NAME_SAFE[c] = true;
+    }
+    for (char c : ".-*_:~".toCharArray()) {
+      NAME_SAFE[c] = true;
+    }
+    System.arraycopy(NAME_SAFE, 0, SAFE, 0, NAME_SAFE.length);
+    SAFE['/'] = true;
+
+    for (int i = 0; i < HEX_VALUES.length; i++) {
+      HEX_VALUES[i] = (byte) Character.digit((char) i, 16);
+    }
+  }
 
   //
   // Name has some wrinkles and non-clarity about the specification for encoding.  As the {@code /} is used
@@ -46,48 +88,255 @@ final class PercentEncoding
   //
 
   public static String encode(final String value) {
-    String encoded = encodeName(value);
-    encoded = simpleReplace(encoded, "%2F", "/");
-    return encoded;
+    return encode(value, SAFE);
   }
 
   public static String encodeName(final String value) {
-    requireNonNull(value);
-    try {
-      String encoded = URLEncoder.encode(value, UTF_8);
-      encoded = simpleReplace(encoded, "+", "%20");
-      // despite the fact that ":" is a reserved character in RFC 3986, we do not encode it for purl.
-      encoded = simpleReplace(encoded, "%3A", ":");
-      // "~" is an unreserved character in RFC 3986.
-      encoded = simpleReplace(encoded, "%7E", "~");
-      return encoded;
-    }
-    catch (UnsupportedEncodingException e) {
-      throw new IllegalArgumentException(e);
-    }
+    return encode(value, NAME_SAFE);
   }
 
   public static String encodeVersion(final String value) {
-    return encode(value);
+    return encode(value, SAFE);
   }
 
   public static String encodeSegment(final String value) {
     // TODO: this may need to have same treatment as name?
-    return encode(value);
+    return encode(value, SAFE);
   }
 
   public static String encodeQualifierValue(final String value) {
-    return encode(value);
+    return encode(value, SAFE);
   }
 
-  public static String decode(final String value) {
+  /**
+   * @since 1.3.0
+   */
+  static void appendName(final Appendable out, final String value) throws IOException {
+    append(out, value, NAME_SAFE);
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  static void appendVersion(final Appendable out, final String value) throws IOException {
+    append(out, value, SAFE);
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  static void appendSegment(final Appendable out, final String value) throws IOException {
+    append(out, value, SAFE);
+  }
+
+  /**
+   * @since 1.3.0
+   */
+  static void appendQualifierValue(final Appendable out, final String value) throws IOException {
+    append(out, value, SAFE);
+  }
+
+  /**
+   * Length of the prefix of value which needs no encoding.
+   */
+  private static int safePrefix(final String value, final boolean[] safe) {
+    int length = value.length();
+    int i = 0;
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c >= 128 || !safe[c]) {
+        break;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Encode value; characters not in the safe table are written as {@code %XX} escapes of their UTF-8 bytes.
+   */
+  private static String encode(final String value, final boolean[] safe) {
     requireNonNull(value);
+
+    int length = value.length();
+    int i = safePrefix(value, safe);
+    if (i == length) {
+      return value;
+    }
+
+    StringBuilder buff = new StringBuilder(length + 16);
+    buff.append(value, 0, i);
     try {
-      return URLDecoder.decode(value, UTF_8);
+      appendEncoded(buff, value, i, safe);
+    }
+    catch (IOException e) {
+      // StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+    return buff.toString();
+  }
+
+  /**
+   * Encode value to given output with-out an intermediate string.
+   */
+  private static void append(final Appendable out, final String value, final boolean[] safe) throws IOException {
+    requireNonNull(value);
+
+    int length = value.length();
+    int i = safePrefix(value, safe);
+    out.append(value, 0, i);
+    if (i < length) {
+      appendEncoded(out, value, i, safe);
+    }
+  }
+
+  /**
+   * Encode value from given index to output.
+   */
+  private static void appendEncoded(final Appendable buff, final String value, final int start, final boolean[] safe)
+      throws IOException
+  {
+    int length = value.length();
+    int i = start;
+    while (i < length) {
+      char c = value.charAt(i++);
+      if (c < 128) {
+        if (safe[c]) {
+          buff.append(c);
+        }
+        else {
+          appendEscape(buff, c);
+        }
+      }
+      else if (c < 0x800) {
+        appendEscape(buff, 0xC0 | (c >> 6));
+        appendEscape(buff, 0x80 | (c & 0x3F));
+      }
+      else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(value.charAt(i))) {
+          int cp = Character.toCodePoint(c, value.charAt(i++));
+          appendEscape(buff, 0xF0 | (cp >> 18));
+          appendEscape(buff, 0x80 | ((cp >> 12) & 0x3F));
+          appendEscape(buff, 0x80 | ((cp >> 6) & 0x3F));
+          appendEscape(buff, 0x80 | (cp & 0x3F));
+        }
+        else {
+          // unpaired surrogate; same replacement as String.getBytes(UTF_8)
+          appendEscape(buff, '?');
+        }
+      }
+      else {
+        appendEscape(buff, 0xE0 | (c >> 12));
+        appendEscape(buff, 0x80 | ((c >> 6) & 0x3F));
+        appendEscape(buff, 0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  private static void appendEscape(final Appendable buff, final int b) throws IOException {
+    buff.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+  }
+
+  /**
+   * Decode {@code %XX} escapes as UTF-8; {@code +} is not treated as space.
+   *
+   * @throws IllegalArgumentException on malformed escapes.
+   */
+  public static String decode(final String value) {
+    String result = tryDecode(value);
+    if (result == null) {
+      throw new IllegalArgumentException(malformedEscapeMessage(value));
+    }
+    return result;
+  }
+
+  /**
+   * Decode {@code %XX} escapes as UTF-8; or {@code null} on malformed escapes.
+   *
+   * @see #malformedEscapeIndex(String)
+   * @since 1.3.0
+   */
+  @Nullable
+  static String tryDecode(final String value) {
+    requireNonNull(value);
+
+    int i = value.indexOf('%');
+    if (i == -1) {
+      return value;
+    }
+
+    int length = value.length();
+    StringBuilder buff = new StringBuilder(length);
+    buff.append(value, 0, i);
+    byte[] bytes = null;
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c != '%') {
+        buff.append(c);
+        i++;
+        continue;
+      }
+
+      // collect the run of consecutive escapes and decode as UTF-8
+      if (bytes == null) {
+        bytes = new byte[(length - i) / 3];
+      }
+      int count = 0;
+      boolean ascii = true;
+      while (i < length && value.charAt(i) == '%') {
+        if (i + 2 >= length) {
+          return null;
+        }
+        int hi = hexValue(value.charAt(i + 1));
+        int lo = hexValue(value.charAt(i + 2));
+        if (hi == -1 || lo == -1) {
+          return null;
+        }
+        byte b = (byte) ((hi << 4) | lo);
+        ascii &= b >= 0;
+        bytes[count++] = b;
+        i += 3;
+      }
+      if (ascii) {
+        for (int j = 0; j < count; j++) {
+          buff.append((char) bytes[j]);
+        }
+      }
+      else {
+        buff.append(new String(bytes, 0, count, StandardCharsets.UTF_8));
+      }
     }
-    catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
+    return buff.toString();
+  }
+
+  private static int hexValue(final char c) {
+    return c < 128 ? HEX_VALUES[c] : -1;
+  }
+
+  /**
+   * Index of the first malformed {@code %XX} escape in value; or {@code -1} if there is none.
+   *
+   * @since 1.3.0
+   */
+  static int malformedEscapeIndex(final String value) {
+    int length = value.length();
+    for (int i = value.indexOf('%'); i != -1; i = value.indexOf('%', i + 3)) {
+      if (i + 2 >= length || hexValue(value.charAt(i + 1)) == -1 || hexValue(value.charAt(i + 2)) == -1) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Message describing the first malformed escape in value.
+   */
+  static String malformedEscapeMessage(final String value) {
+    int i = malformedEscapeIndex(value);
+    if (i != -1 && i + 2 >= value.length()) {
+      return "Incomplete trailing escape (%) pattern: " + value;
     }
+    return "Illegal hex characters in escape (%) pattern: " + value;
   }
 
   /**
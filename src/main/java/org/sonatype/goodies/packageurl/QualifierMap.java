@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Compact immutable {@link PackageUrl#getQualifiers() qualifiers} map.
+ *
+ * Keys and values are interleaved in a single array sorted by key; lookups are binary searches and sub-maps share the
+ * array.  Well-known qualifier keys are shared constants.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+final class QualifierMap
+    extends AbstractMap<String, String>
+    implements SortedMap<String, String>, Serializable
+{
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Well-known qualifier keys; from the specification and common types.
+   */
+  private static final Map<String, String> KEYS = new HashMap<>();
+
+  private static final String[][] KEY_CONSTANTS;
+
+  static {
+    String[] keys = {
+        "repository_url", "download_url", "vcs_url", "file_name", "checksum",
+        "type", "classifier", "arch", "distro", "epoch", "os", "platform"
+    };
+    for (String key : keys) {
+      KEYS.put(key, key);
+    }
+    KEY_CONSTANTS = MoreStrings.constants(keys);
+  }
+
+  private static final String[] NONE = {};
+
+  /**
+   * Keys at even and values at odd indexes.
+   */
+  private final String[] entries;
+
+  /**
+   * Entry index range of this map; exclusive end.
+   */
+  private final int from;
+
+  private final int to;
+
+  private QualifierMap(final String[] entries, final int from, final int to) {
+    this.entries = entries;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Map of given interleaved key and value array, which must be sorted by key and is used as-is.
+   */
+  static QualifierMap ofSorted(final String[] entries) {
+    return new QualifierMap(entries, 0, entries.length / 2);
+  }
+
+  /**
+   * Copy of given map with keys and values as-is; returns given map if already a {@link QualifierMap}.
+   */
+  static QualifierMap copyOf(final Map<String, String> map) {
+    if (map instanceof QualifierMap) {
+      return (QualifierMap) map;
+    }
+    Sorter sorter = new Sorter(map.size());
+    for (Entry<String, String> entry : map.entrySet()) {
+      sorter.put(entry.getKey(), entry.getValue());
+    }
+    return sorter.toMap();
+  }
+
+  /**
+   * Normalized copy of given map; keys are lower-cased, entries with blank values are omitted, and later keys replace
+   * earlier keys which are equal once lower-cased.  Returns {@code null} when there are no entries.
+   *
+   * Returns given map if already a {@link QualifierMap}, which is normalized when built.
+   */
+  @Nullable
+  static QualifierMap normalize(@Nullable final Map<String, String> map) {
+    if (map == null) {
+      return null;
+    }
+    if (map instanceof QualifierMap) {
+      return map.isEmpty() ? null : (QualifierMap) map;
+    }
+    Sorter sorter = new Sorter(map.size());
+    for (Entry<String, String> entry : map.entrySet()) {
+      String value = entry.getValue();
+      if (!MoreStrings.isBlank(value)) {
+        sorter.put(key(entry.getKey()), value);
+      }
+    }
+    return sorter.size == 0 ? null : sorter.toMap();
+  }
+
+  /**
+   * Lower-cased key; well-known keys are shared constants.
+   */
+  static String key(final String key) {
+    String result = MoreStrings.lowerCase(key);
+    String known = KEYS.get(result);
+    return known != null ? known : result;
+  }
+
+  /**
+   * Well-known key equal to given range of value; or {@code null} if none.
+   */
+  @Nullable
+  static String knownKey(final CharSequence value, final int start, final int end) {
+    return MoreStrings.constant(KEY_CONSTANTS, value, start, end, false);
+  }
+
+  /**
+   * Accumulates entries in key order; later keys replace equal earlier keys.
+   */
+  static final class Sorter
+  {
+    private String[] entries;
+
+    private int size;
+
+    Sorter(final int capacity) {
+      entries = capacity == 0 ? NONE : new String[capacity * 2];
+    }
+
+    void put(final String key, final String value) {
+      int index = search(entries, 0, size, key);
+      if (index >= 0) {
+        entries[index * 2 + 1] = value;
+        return;
+      }
+      index = -index - 1;
+      if (size * 2 == entries.length) {
+        entries = Arrays.copyOf(entries, Math.max(2, entries.length * 2));
+      }
+      System.arraycopy(entries, index * 2, entries, index * 2 + 2, (size - index) * 2);
+      entries[index * 2] = key;
+      entries[index * 2 + 1] = value;
+      size++;
+    }
+
+    QualifierMap toMap() {
+      return ofSorted(size * 2 == entries.length ? entries : Arrays.copyOf(entries, size * 2));
+    }
+
+    /**
+     * Map of entries with-out blank values; or {@code null} when there are none.  Keys must already be normalized.
+     */
+    @Nullable
+    QualifierMap toNormalizedMap() {
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        String value = entries[i * 2 + 1];
+        if (!MoreStrings.isBlank(value)) {
+          entries[count * 2] = entries[i * 2];
+          entries[count * 2 + 1] = value;
+          count++;
+        }
+      }
+      size = count;
+      return size == 0 ? null : toMap();
+    }
+  }
+
+  /**
+   * Binary search for key in entry range; returns the entry index, or {@code -(insertion point) - 1}.
+   */
+  private static int search(final String[] entries, final int from, final int to, final String key) {
+    int low = from;
+    int high = to - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = entries[mid * 2].compareTo(key);
+      if (cmp < 0) {
+        low = mid + 1;
+      }
+      else if (cmp > 0) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Entry index of first key not less than given key.
+   */
+  private int lowerBound(final String key) {
+    int index = search(entries, from, to, key);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  String keyAt(final int index) {
+    return entries[(from + index) * 2];
+  }
+
+  String valueAt(final int index) {
+    return entries[(from + index) * 2 + 1];
+  }
+
+  /**
+   * Backing key and value array for the whole map; must not be modified.
+   */
+  String[] entries() {
+    return from == 0 && to * 2 == entries.length ? entries : Arrays.copyOfRange(entries, from * 2, to * 2);
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return to == from;
+  }
+
+  @Nullable
+  @Override
+  public String get(final Object key) {
+    if (key instanceof String) {
+      int index = search(entries, from, to, (String) key);
+      if (index >= 0) {
+        return entries[index * 2 + 1];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return key instanceof String && search(entries, from, to, (String) key) >= 0;
+  }
+
+  @Nullable
+  @Override
+  public Comparator<? super String> comparator() {
+    return null;
+  }
+
+  @Override
+  public SortedMap<String, String> subMap(final String fromKey, final String toKey) {
+    if (fromKey.compareTo(toKey) > 0) {
+      throw new IllegalArgumentException("fromKey > toKey");
+    }
+    return new QualifierMap(entries, lowerBound(fromKey), lowerBound(toKey));
+  }
+
+  @Override
+  public SortedMap<String, String> headMap(final String toKey) {
+    return new QualifierMap(entries, from, lowerBound(toKey));
+  }
+
+  @Override
+  public SortedMap<String, String> tailMap(final String fromKey) {
+    return new QualifierMap(entries, lowerBound(fromKey), to);
+  }
+
+  @Override
+  public String firstKey() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return keyAt(0);
+  }
+
+  @Override
+  public String lastKey() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return keyAt(size() - 1);
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>()
+    {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<Entry<String, String>>()
+        {
+          private int index = from;
+
+          @Override
+          public boolean hasNext() {
+            return index < to;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (index >= to) {
+              throw new NoSuchElementException();
+            }
+            int i = index++ * 2;
+            return new SimpleImmutableEntry<>(entries[i], entries[i + 1]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return to - from;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof QualifierMap) {
+      QualifierMap that = (QualifierMap) o;
+      if (size() != that.size()) {
+        return false;
+      }
+      for (int i = from * 2, j = that.from * 2; i < to * 2; i++, j++) {
+        if (!Objects.equals(entries[i], that.entries[j])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return super.equals(o);
+  }
+
+  /**
+   * Same value as {@link AbstractMap#hashCode()}.
+   */
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (int i = from * 2; i < to * 2; i += 2) {
+      result += entries[i].hashCode() ^ Objects.hashCode(entries[i + 1]);
+    }
+    return result;
+  }
+}
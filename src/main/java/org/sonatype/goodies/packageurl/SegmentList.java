@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Compact immutable {@link PackageUrl#getNamespace() namespace} and {@link PackageUrl#getSubpath() subpath} segments.
+ *
+ * Backed by a single array with-out list wrappers; the {@code /} joined form is computed once, and for a single
+ * segment is the segment itself.
+ *
+ * @since 1.3.0
+ */
+@Immutable
+final class SegmentList
+    extends AbstractList<String>
+    implements RandomAccess, Serializable
+{
+  private static final long serialVersionUID = 1L;
+
+  private final String[] segments;
+
+  /**
+   * Lazily joined segments; immutable so may be published via a data race.
+   */
+  private transient String string;
+
+  private SegmentList(final String[] segments) {
+    this.segments = segments;
+  }
+
+  /**
+   * List of given segments, which are used as-is.
+   */
+  static SegmentList of(final String[] segments) {
+    return new SegmentList(segments);
+  }
+
+  /**
+   * Copy of given segments; returns given list if already a {@link SegmentList}.
+   */
+  static SegmentList copyOf(final List<String> segments) {
+    if (segments instanceof SegmentList) {
+      return (SegmentList) segments;
+    }
+    return new SegmentList(segments.toArray(new String[0]));
+  }
+
+  @Override
+  public String get(final int index) {
+    return segments[index];
+  }
+
+  @Override
+  public int size() {
+    return segments.length;
+  }
+
+  /**
+   * Segments joined with {@code /}; unencoded.
+   */
+  String asString() {
+    String result = string;
+    if (result == null) {
+      result = segments.length == 1 ? segments[0] : String.join("/", segments);
+      string = result;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof SegmentList) {
+      String[] those = ((SegmentList) o).segments;
+      if (segments.length != those.length) {
+        return false;
+      }
+      for (int i = 0; i < segments.length; i++) {
+        if (!Objects.equals(segments[i], those[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return super.equals(o);
+  }
+
+  /**
+   * Same value as {@link AbstractList#hashCode()}.
+   */
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (String segment : segments) {
+      result = 31 * result + Objects.hashCode(segment);
+    }
+    return result;
+  }
+}
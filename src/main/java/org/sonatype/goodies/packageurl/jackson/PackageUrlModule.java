@@ -13,27 +13,50 @@
 package org.sonatype.goodies.packageurl.jackson;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
 import org.sonatype.goodies.packageurl.PackageUrl;
+import org.sonatype.goodies.packageurl.PackageUrlBuilder;
+import org.sonatype.goodies.packageurl.PackageUrlCache;
+import org.sonatype.goodies.packageurl.PackageUrlParser;
 import org.sonatype.goodies.packageurl.RenderFlavor;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 /**
  * {@link PackageUrl} Jackson module.
  *
+ * Package-urls are serialized as strings; or as objects of their components with {@link JsonFormat.Shape#OBJECT},
+ * configured via {@link #withShape(JsonFormat.Shape)} or per-property with {@link JsonFormat}.  Either shape is
+ * accepted when deserializing:
+ *
+ * <pre>
+ * {"type":"maven","namespace":["junit"],"name":"junit","version":"4.12","qualifiers":{"type":"jar"},"subpath":["a"]}
+ * </pre>
+ *
+ * Objects are built from their unencoded components, and validated as {@link PackageUrlBuilder#build()}; with the
+ * {@link PackageUrlParser#builder() configuration} of the deserializer's parser, as strings are parsed.
+ *
  * @since 1.0.0
  */
 public class PackageUrlModule
@@ -44,6 +67,30 @@ public class PackageUrlModule
   @Nullable
   private RenderFlavor flavor;
 
+  /**
+   * Caches are not serializable; serialized modules do not cache.
+   */
+  @Nullable
+  private transient PackageUrlCache cache;
+
+  private JsonFormat.Shape shape = JsonFormat.Shape.STRING;
+
+  //
+  // Object shape field names
+  //
+
+  private static final String TYPE = "type";
+
+  private static final String NAMESPACE = "namespace";
+
+  private static final String NAME = "name";
+
+  private static final String VERSION = "version";
+
+  private static final String QUALIFIERS = "qualifiers";
+
+  private static final String SUBPATH = "subpath";
+
   /**
    * Configure {@link RenderFlavor} for string rendering.
    */
@@ -52,56 +99,271 @@ public class PackageUrlModule
     return this;
   }
 
+  /**
+   * Configure {@link PackageUrlCache} for deserialization; or {@code null} to disable.
+   *
+   * Documents often repeat the same package-urls; cached values are parsed once.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlModule withCache(@Nullable final PackageUrlCache cache) {
+    this.cache = cache;
+    return this;
+  }
+
+  /**
+   * Configure serialization shape; {@link JsonFormat.Shape#STRING} (default) or {@link JsonFormat.Shape#OBJECT}.
+   *
+   * @since 1.3.0
+   */
+  public PackageUrlModule withShape(@Nullable final JsonFormat.Shape shape) {
+    this.shape = shape != null ? checkShape(shape) : JsonFormat.Shape.STRING;
+    return this;
+  }
+
+  private static JsonFormat.Shape checkShape(final JsonFormat.Shape shape) {
+    if (shape != JsonFormat.Shape.STRING && shape != JsonFormat.Shape.OBJECT) {
+      throw new IllegalArgumentException("Unsupported shape: " + shape);
+    }
+    return shape;
+  }
+
   @Override
   public void setupModule(final SetupContext context) {
-    addSerializer(PackageUrl.class, new PackageUrlSerializer(flavor));
-    addDeserializer(PackageUrl.class, new PackageUrlDeserializer());
+    addSerializer(PackageUrl.class, new PackageUrlSerializer(flavor, shape));
+    addDeserializer(PackageUrl.class, new PackageUrlDeserializer(PackageUrl.parser().cache(cache)));
 
     super.setupModule(context);
   }
 
   /**
    * {@link PackageUrl} deserializer.
+   *
+   * String tokens are parsed directly from the text characters of the {@link JsonParser}; objects are read as
+   * components; other tokens are coerced to string via databind.
    */
   public static class PackageUrlDeserializer
       extends StdDeserializer<PackageUrl>
   {
     private static final long serialVersionUID = 1L;
 
+    private final transient PackageUrlParser purlParser;
+
     public PackageUrlDeserializer() {
+      this(PackageUrl.parser());
+    }
+
+    /**
+     * @since 1.3.0
+     */
+    public PackageUrlDeserializer(final PackageUrlParser purlParser) {
       super(PackageUrl.class);
+      this.purlParser = purlParser;
     }
 
     @Override
     public PackageUrl deserialize(final JsonParser parser, final DeserializationContext context)
         throws IOException, JsonProcessingException
     {
-      String value = parser.readValueAs(String.class);
-      return PackageUrl.parse(value);
+      // parser is not serializable; fallback to defaults if this deserializer was
+      PackageUrlParser effectiveParser = purlParser != null ? purlParser : PackageUrl.parser();
+      if (parser.hasToken(JsonToken.VALUE_STRING)) {
+        return effectiveParser.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+      }
+      else if (parser.hasToken(JsonToken.START_OBJECT) || parser.hasToken(JsonToken.FIELD_NAME)) {
+        return deserializeObject(parser, context, effectiveParser.builder());
+      }
+      return effectiveParser.parse(parser.readValueAs(String.class));
+    }
+
+    /**
+     * Build from object components with given builder, configured as the parser of string values; JSON {@code null}
+     * values are treated as absent.
+     */
+    private PackageUrl deserializeObject(final JsonParser parser,
+                                         final DeserializationContext context,
+                                         final PackageUrlBuilder builder) throws IOException
+    {
+      JsonToken token = parser.hasToken(JsonToken.START_OBJECT) ? parser.nextToken() : parser.currentToken();
+      for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+        String field = parser.getCurrentName();
+        if (parser.nextToken() == JsonToken.VALUE_NULL) {
+          continue;
+        }
+        switch (field) {
+          case TYPE:
+            builder.type(readString(parser, context));
+            break;
+          case NAMESPACE:
+            builder.namespace(readSegments(parser, context));
+            break;
+          case NAME:
+            builder.name(readString(parser, context));
+            break;
+          case VERSION:
+            builder.version(readString(parser, context));
+            break;
+          case QUALIFIERS:
+            readQualifiers(parser, context, builder);
+            break;
+          case SUBPATH:
+            builder.subpath(readSegments(parser, context));
+            break;
+          default:
+            context.handleUnknownProperty(parser, this, PackageUrl.class, field);
+        }
+      }
+      return builder.build();
+    }
+
+    private String readString(final JsonParser parser, final DeserializationContext context) throws IOException {
+      if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+        context.reportWrongTokenException(this, JsonToken.VALUE_STRING, "Expected string value");
+      }
+      return parser.getText();
+    }
+
+    /**
+     * Segments are an array of strings.
+     */
+    private List<String> readSegments(final JsonParser parser, final DeserializationContext context)
+        throws IOException
+    {
+      if (!parser.hasToken(JsonToken.START_ARRAY)) {
+        context.reportWrongTokenException(this, JsonToken.START_ARRAY, "Expected array of segments");
+      }
+      List<String> result = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        result.add(readString(parser, context));
+      }
+      return result;
+    }
+
+    /**
+     * Qualifiers are an object of string values; {@code null} values are absent.
+     */
+    private void readQualifiers(final JsonParser parser,
+                                final DeserializationContext context,
+                                final PackageUrlBuilder builder) throws IOException
+    {
+      if (!parser.hasToken(JsonToken.START_OBJECT)) {
+        context.reportWrongTokenException(this, JsonToken.START_OBJECT, "Expected object of qualifiers");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String key = parser.getCurrentName();
+        if (parser.nextToken() != JsonToken.VALUE_NULL) {
+          builder.qualifier(key, readString(parser, context));
+        }
+      }
     }
   }
 
   /**
    * {@link PackageUrl} serializer.
+   *
+   * The shape may be overridden per-property with {@link JsonFormat}.
    */
   public static class PackageUrlSerializer
       extends StdSerializer<PackageUrl>
+      implements ContextualSerializer
   {
     private static final long serialVersionUID = 1L;
 
     @Nullable
     private final RenderFlavor flavor;
 
+    private final JsonFormat.Shape shape;
+
     public PackageUrlSerializer(@Nullable final RenderFlavor flavor) {
+      this(flavor, JsonFormat.Shape.STRING);
+    }
+
+    /**
+     * @since 1.3.0
+     */
+    public PackageUrlSerializer(@Nullable final RenderFlavor flavor, final JsonFormat.Shape shape) {
       super(PackageUrl.class);
       this.flavor = flavor;
+      this.shape = checkShape(shape);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(final SerializerProvider provider, @Nullable final BeanProperty property)
+        throws JsonMappingException
+    {
+      JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+      if (format != null) {
+        JsonFormat.Shape override = format.getShape();
+        if ((override == JsonFormat.Shape.STRING || override == JsonFormat.Shape.OBJECT) && override != shape) {
+          return new PackageUrlSerializer(flavor, override);
+        }
+      }
+      return this;
     }
 
     @Override
     public void serialize(final PackageUrl value, final JsonGenerator generator, final SerializerProvider provider)
         throws IOException
     {
-      generator.writeString(value.toString(flavor != null ? flavor : RenderFlavor.getDefault()));
+      if (shape == JsonFormat.Shape.OBJECT) {
+        generator.writeStartObject(value);
+        serializeFields(value, generator);
+        generator.writeEndObject();
+      }
+      else {
+        serializeString(value, generator);
+      }
+    }
+
+    /**
+     * Writes the already rendered string if there is one; otherwise renders into a per-thread {@link RenderBuffer}
+     * which is written to the generator, with-out an intermediate string.
+     */
+    private void serializeString(final PackageUrl value, final JsonGenerator generator) throws IOException {
+      RenderFlavor renderFlavor = flavor != null ? flavor : RenderFlavor.getDefault();
+      String rendered = value.toStringIfRendered(renderFlavor);
+      if (rendered != null) {
+        generator.writeString(rendered);
+      }
+      else {
+        RenderBuffer buffer = RenderBuffer.get();
+        value.appendTo(buffer, renderFlavor);
+        generator.writeString(buffer.chars, 0, buffer.size);
+      }
+    }
+
+    /**
+     * Write unencoded components; absent components are omitted.
+     */
+    private static void serializeFields(final PackageUrl value, final JsonGenerator generator) throws IOException {
+      generator.writeStringField(TYPE, value.getType());
+      if (value.getNamespace() != null) {
+        writeSegments(generator, NAMESPACE, value.getNamespace());
+      }
+      generator.writeStringField(NAME, value.getName());
+      if (value.getVersion() != null) {
+        generator.writeStringField(VERSION, value.getVersion());
+      }
+      if (value.getQualifiers() != null) {
+        generator.writeObjectFieldStart(QUALIFIERS);
+        for (Map.Entry<String, String> entry : value.getQualifiers().entrySet()) {
+          generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        generator.writeEndObject();
+      }
+      if (value.getSubpath() != null) {
+        writeSegments(generator, SUBPATH, value.getSubpath());
+      }
+    }
+
+    private static void writeSegments(final JsonGenerator generator, final String field, final List<String> segments)
+        throws IOException
+    {
+      generator.writeArrayFieldStart(field);
+      for (int i = 0, size = segments.size(); i < size; i++) {
+        generator.writeString(segments.get(i));
+      }
+      generator.writeEndArray();
     }
 
     /**
@@ -113,9 +375,86 @@ public class PackageUrlModule
                                   final SerializerProvider provider,
                                   final TypeSerializer serializer) throws IOException
     {
-      WritableTypeId typeId = serializer.writeTypePrefix(generator, serializer.typeId(value, JsonToken.VALUE_STRING));
-      serialize(value, generator, provider);
-      serializer.writeTypeSuffix(generator, typeId);
+      if (shape == JsonFormat.Shape.OBJECT) {
+        WritableTypeId typeId = serializer.writeTypePrefix(generator, serializer.typeId(value, JsonToken.START_OBJECT));
+        serializeFields(value, generator);
+        serializer.writeTypeSuffix(generator, typeId);
+      }
+      else {
+        WritableTypeId typeId = serializer.writeTypePrefix(generator, serializer.typeId(value, JsonToken.VALUE_STRING));
+        serializeString(value, generator);
+        serializer.writeTypeSuffix(generator, typeId);
+      }
+    }
+  }
+
+  /**
+   * Growable {@code char[]} reused per-thread by {@link PackageUrlSerializer}.
+   *
+   * Threads only hold plain arrays, so pooled threads do not keep this class loader alive, and arrays grown past
+   * {@link #MAX_RETAINED} are dropped after use, so a single large value does not pin memory on every thread.
+   */
+  private static final class RenderBuffer
+      implements Appendable
+  {
+    private static final int MAX_RETAINED = 1024;
+
+    private static final ThreadLocal<char[]> BUFFERS = new ThreadLocal<>();
+
+    private char[] chars;
+
+    private int size;
+
+    private RenderBuffer(final char[] chars) {
+      this.chars = chars;
+    }
+
+    /**
+     * Returns an empty buffer over the array of the current thread.
+     */
+    static RenderBuffer get() {
+      char[] chars = BUFFERS.get();
+      if (chars == null) {
+        chars = new char[256];
+        BUFFERS.set(chars);
+      }
+      return new RenderBuffer(chars);
+    }
+
+    private void ensureCapacity(final int capacity) {
+      if (capacity > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+        if (chars.length <= MAX_RETAINED) {
+          BUFFERS.set(chars);
+        }
+      }
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) {
+      ensureCapacity(size + end - start);
+      if (csq instanceof String) {
+        ((String) csq).getChars(start, end, chars, size);
+        size += end - start;
+      }
+      else {
+        for (int i = start; i < end; i++) {
+          chars[size++] = csq.charAt(i);
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(final char c) {
+      ensureCapacity(size + 1);
+      chars[size++] = c;
+      return this;
     }
   }
 }
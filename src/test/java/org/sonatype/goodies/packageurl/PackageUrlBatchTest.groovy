@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlBatch} tests.
+ */
+class PackageUrlBatchTest
+    extends TestSupport
+{
+  @Test
+  void 'parse all keeps order and collects failures'() {
+    def values = (0..<2000).collect { (it % 7 == 0 ? "pkg:1invalid/$it" : "pkg:maven/org.example/lib@$it").toString() }
+
+    def pool = new ForkJoinPool(4)
+    try {
+      def batch = PackageUrl.parser().parseAll(values, pool)
+      assert batch.size() == values.size()
+      assert batch.hasFailures()
+      assert batch.failures.keySet() == (0..<2000).findAll { it % 7 == 0 } as Set
+
+      values.eachWithIndex { value, i ->
+        if (i % 7 == 0) {
+          assert !batch.isValid(i)
+          assert batch.get(i) == null
+          assert batch.getError(i) instanceof InvalidException
+        }
+        else {
+          assert batch.isValid(i)
+          assert batch.get(i).version == "$i" as String
+          assert batch.values[i].is(batch.get(i))
+        }
+      }
+    }
+    finally {
+      pool.shutdown()
+    }
+  }
+
+  @Test
+  void 'parse all on executor'() {
+    def values = (0..<5000).collect { (it % 11 == 0 ? "pkg:maven/a/b@1?x=%zz" : "pkg:npm/lib@$it").toString() }
+
+    def executor = Executors.newFixedThreadPool(3)
+    try {
+      def batch = PackageUrl.parser().parseAll(values, executor)
+      assert batch.size() == values.size()
+      assert batch.failures.keySet() == (0..<5000).findAll { it % 11 == 0 } as Set
+      values.eachWithIndex { value, i ->
+        if (i % 11 == 0) {
+          assert batch.getParseFailure(i).reason == PackageUrlParseResult.Reason.MALFORMED_ESCAPE
+          assert batch.getError(i) instanceof IllegalArgumentException
+        }
+        else {
+          assert batch.getParseFailure(i) == null
+          assert batch.get(i).version == "$i" as String
+        }
+      }
+    }
+    finally {
+      executor.shutdown()
+    }
+  }
+
+  @Test
+  void 'parse failures are recorded with-out stack traces'() {
+    def batch = PackageUrl.parser().parseAll(['pkg:1invalid/a', 'pkg:maven/a/b@1'], { it.run() } as Executor)
+    assert batch.getParseFailure(0).reason == PackageUrlParseResult.Reason.INVALID_SYNTAX
+    assert batch.getError(0).stackTrace.length == 0
+    assert batch.isValid(1)
+  }
+
+  @Test
+  void 'build all'() {
+    def builders = [
+        PackageUrl.builder().type('maven').namespace('junit').name('junit').version('4.12'),
+        PackageUrl.builder().type('maven').version('4.12'),
+        PackageUrl.builder().type('pypi').name('django_allauth')
+    ]
+
+    def batch = PackageUrlBuilder.buildAll(builders)
+    assert batch.size() == 3
+    assert batch.get(0).toString() == 'pkg:maven/junit/junit@4.12'
+    assert batch.getError(1) instanceof MissingComponentException
+    assert batch.get(2).name == 'django-allauth'
+    assert batch.failures.keySet() == [1] as Set
+  }
+
+  @Test
+  void 'empty batch'() {
+    def batch = PackageUrl.parser().parseAll([])
+    assert batch.size() == 0
+    assert !batch.hasFailures()
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlBloomFilter} tests.
+ */
+class PackageUrlBloomFilterTest
+    extends TestSupport
+{
+  private static List<PackageUrl> purls(final int count, final String prefix) {
+    return (0..<count).collect { PackageUrl.parse("pkg:maven/org.example/${prefix}-${it % 100}@1.${it}") }
+  }
+
+  private static PackageUrlBloomFilter build(final List<PackageUrl> purls, final double rate) {
+    def builder = PackageUrlBloomFilter.builder(purls.size(), rate)
+    purls.each { builder.add(it) }
+    return builder.build()
+  }
+
+  @Test
+  void 'no false negatives and bounded false positives'() {
+    def added = purls(10000, 'added')
+    def filter = build(added, 0.01)
+    assert added.every { filter.mightContain(it) }
+    assert added.every { filter.mightContain(it.toString()) }
+
+    def positives = purls(10000, 'absent').count { filter.mightContain(it) }
+    assert positives < 200
+    assert filter.expectedFalsePositiveRate() < 0.02
+    assert filter.hashCount() == 7
+  }
+
+  @Test
+  void 'versionless filter'() {
+    def filter = PackageUrlBloomFilter.builder(10, 0.001)
+        .versionless()
+        .add(PackageUrl.parse('pkg:npm/%40babel/core@7.0.0?foo=bar'))
+        .add('pkg:maven/org.apache/apache@23')
+        .build()
+    assert filter.versionless
+    assert filter.mightContain(PackageUrl.parse('pkg:npm/%40babel/core'))
+    assert filter.mightContain(PackageUrl.parse('pkg:npm/%40babel/core@8#lib'))
+    assert filter.mightContain('pkg:maven/org.apache/apache')
+    assert !filter.mightContain(PackageUrl.parse('pkg:npm/%40babel/cli@7.0.0'))
+  }
+
+  @Test
+  void 'write and read'() {
+    def added = purls(1000, 'added')
+    def filter = build(added, 0.05)
+    def buff = new ByteArrayOutputStream()
+    filter.writeTo(buff)
+    assert buff.size() == 21 + filter.bitCount() / 8
+
+    def read = PackageUrlBloomFilter.readFrom(new ByteArrayInputStream(buff.toByteArray()))
+    assert read.bitCount() == filter.bitCount()
+    assert read.hashCount() == filter.hashCount()
+    assert !read.versionless
+    assert added.every { read.mightContain(it) }
+    assert purls(1000, 'absent').every { read.mightContain(it) == filter.mightContain(it) }
+  }
+
+  @Test(expected = IOException)
+  void 'invalid stream rejected'() {
+    PackageUrlBloomFilter.readFrom(new ByteArrayInputStream('not a bloom filter stream'.bytes))
+  }
+
+  @Test(expected = IllegalArgumentException)
+  void 'non-canonical string rejected'() {
+    PackageUrlBloomFilter.builder(10, 0.01).build().mightContain('pkg:npm/中文')
+  }
+
+  @Test(expected = IllegalArgumentException)
+  void 'invalid false-positive rate rejected'() {
+    PackageUrlBloomFilter.builder(10, 1.0)
+  }
+
+  @Test(expected = IllegalStateException)
+  void 'versionless after add rejected'() {
+    PackageUrlBloomFilter.builder(10, 0.01).add('pkg:npm/lodash').versionless()
+  }
+}
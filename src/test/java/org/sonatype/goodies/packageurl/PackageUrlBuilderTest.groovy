@@ -198,4 +198,26 @@ class PackageUrlBuilderTest
     }
   }
 
+  @Test
+  void 'reset and reuse'() {
+    PackageUrlBuilder builder = new PackageUrlBuilder().typeSpecificTransformations(false)
+    def first = builder.type('maven').namespace('org.apache').name('Apache').version('23')
+        .qualifier('type', 'pom').build()
+    def second = builder.reset().type('npm').name('lodash').qualifier('os', 'linux').build()
+    assert first.toString() == 'pkg:maven/org.apache/Apache@23?type=pom'
+    assert second.toString() == 'pkg:npm/lodash?os=linux'
+    assert first.qualifiers == [type: 'pom']
+
+    // shared components are owned by the result
+    def third = builder.reset().from(first).version('24').build()
+    assert third.namespace.is(first.namespace)
+    assert third.qualifiers.is(first.qualifiers)
+    assert builder.qualifier('classifier', 'sources').build().qualifiers == [classifier: 'sources', type: 'pom']
+    assert third.qualifiers == [type: 'pom']
+  }
+
+  @Test(expected = MissingComponentException)
+  void 'reset clears components'() {
+    new PackageUrlBuilder().type('npm').name('lodash').reset().type('npm').build()
+  }
 }
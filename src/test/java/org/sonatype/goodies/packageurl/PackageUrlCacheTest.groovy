@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlCache} tests.
+ */
+class PackageUrlCacheTest
+    extends TestSupport
+{
+  @Test
+  void 'cached parse returns shared instances'() {
+    def cache = PackageUrlCache.lru(100)
+    def parser = PackageUrl.parser().cache(cache)
+
+    def purl1 = parser.parse('pkg:pypi/django_allauth@1.11.1')
+    def purl2 = parser.parse('pkg:pypi/django_allauth@1.11.1')
+    assert purl1.is(purl2)
+    assert purl1.name == 'django-allauth'
+    assert cache.hitCount == 1
+    assert cache.missCount == 1
+    assert cache.size() == 1
+  }
+
+  @Test
+  void 'type-specific transformations are respected'() {
+    def cache = PackageUrlCache.lfu(100)
+
+    def purl1 = PackageUrl.parser().cache(cache).parse('pkg:pypi/django_allauth@1.11.1')
+    def purl2 = PackageUrl.parser().cache(cache).typeSpecificTransformations(false).parse('pkg:pypi/django_allauth@1.11.1')
+    assert purl1.name == 'django-allauth'
+    assert purl2.name == 'django_allauth'
+    assert cache.size() == 2
+  }
+
+  @Test
+  void 'invalid values are not cached'() {
+    def cache = PackageUrlCache.lru(100)
+    def parser = PackageUrl.parser().cache(cache)
+    try {
+      parser.parse('pkg:1foo/bar')
+      assert false
+    }
+    catch (InvalidException e) {
+      // expected
+    }
+    assert cache.size() == 0
+  }
+
+  private static void assertBounded(final PackageUrlCache cache) {
+    def parser = PackageUrl.parser().cache(cache)
+    1000.times {
+      parser.parse("pkg:foo/bar@$it")
+    }
+    assert cache.size() == 200
+    assert cache.evictionCount == 800
+  }
+
+  @Test
+  void 'lru eviction'() {
+    def cache = PackageUrlCache.lru(1)
+    def parser = PackageUrl.parser().cache(cache)
+    def purl1 = parser.parse('pkg:foo/bar@1')
+    parser.parse('pkg:foo/bar@2')
+    assert !parser.parse('pkg:foo/bar@1').is(purl1)
+    assert cache.evictionCount == 2
+
+    assertBounded(PackageUrlCache.lru(200))
+  }
+
+  @Test
+  void 'lfu eviction'() {
+    def cache = PackageUrlCache.lfu(2)
+    def parser = PackageUrl.parser().cache(cache)
+    def hot = parser.parse('pkg:foo/hot@1')
+    10.times {
+      assert parser.parse('pkg:foo/hot@1').is(hot)
+    }
+    10.times {
+      parser.parse("pkg:foo/cold@$it")
+    }
+    assert parser.parse('pkg:foo/hot@1').is(hot)
+
+    assertBounded(PackageUrlCache.lfu(200))
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import java.nio.ByteBuffer
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+import static org.junit.Assert.fail
+
+/**
+ * {@link PackageUrlCodec} tests.
+ */
+class PackageUrlCodecTest
+    extends TestSupport
+{
+  @Test
+  void 'round-trip test-suite-data'() {
+    def purls = TestSuiteData.get('test-suite-data.json')
+        .findAll { !it.is_invalid }
+        .collect { PackageUrl.parse(it.purl) }
+    assert !purls.isEmpty()
+
+    def buffer = ByteBuffer.allocate(64 * 1024)
+    purls.each { purl ->
+      byte[] bytes = PackageUrlCodec.encode(purl)
+      assert bytes.length == PackageUrlCodec.encodedLength(purl)
+      def decoded = PackageUrlCodec.decode(bytes)
+      assert decoded == purl
+      assert decoded.toString() == purl.toString()
+      PackageUrlCodec.encode(purl, buffer)
+    }
+
+    // concatenated in one buffer
+    buffer.flip()
+    purls.each { purl ->
+      assert PackageUrlCodec.decode(buffer) == purl
+    }
+    assert !buffer.hasRemaining()
+  }
+
+  @Test
+  void 'stable encoding'() {
+    def purl = PackageUrl.parse('pkg:maven/org.example/name@1.0?type=jar&custom=x%C3%A9#a/b')
+    // version, flags, maven, namespace, name, version, qualifiers (literal "custom", "type"), subpath
+    assert PackageUrlCodec.encode(purl).encodeHex().toString() ==
+        '01' + '0f' + '15' +
+        '01' + '0b' + '6f72672e6578616d706c65' +
+        '04' + '6e616d65' +
+        '03' + '312e30' +
+        '02' + '00' + '06' + '637573746f6d' + '03' + '78c3a9' + '0d' + '03' + '6a6172' +
+        '02' + '01' + '61' + '01' + '62'
+  }
+
+  @Test
+  void 'smaller than text'() {
+    def purl = PackageUrl.parse('pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar')
+    assert PackageUrlCodec.encode(purl).length < purl.toString().length()
+  }
+
+  @Test
+  void 'unicode and literal symbols'() {
+    def purl = PackageUrl.builder()
+        .type('custom-type')
+        .namespace(['déjà', '😀'])
+        .name('n a/m%e')
+        .qualifier('my_key', 'vé')
+        .build()
+    assert PackageUrlCodec.decode(PackageUrlCodec.encode(purl)) == purl
+  }
+
+  @Test
+  void 'unpaired surrogates rejected'() {
+    def purl = PackageUrl.builder().type('generic').name('a\uD800b').version('1').build()
+    def buffer = ByteBuffer.allocate(64)
+    try {
+      PackageUrlCodec.encode(purl, buffer)
+      fail()
+    }
+    catch (IllegalArgumentException e) {
+      assert buffer.position() == 0
+    }
+    def qualified = PackageUrl.builder().type('generic').name('a').qualifier('k', '\uDC00').build()
+    try {
+      PackageUrlCodec.encode(qualified)
+      fail()
+    }
+    catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'malformed utf-8 rejected'() {
+    byte[] bytes = PackageUrlCodec.encode(PackageUrl.parse('pkg:generic/ab'))
+    bytes[bytes.length - 1] = (byte) 0xFF
+    PackageUrlCodec.decode(bytes)
+  }
+
+  @Test
+  void 'malformed utf-8 rejected from direct buffer'() {
+    byte[] bytes = PackageUrlCodec.encode(PackageUrl.parse('pkg:generic/d%C3%A9j%C3%A0'))
+    def buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes)
+    buffer.flip()
+    assert PackageUrlCodec.decode(buffer).name == 'déjà'
+    assert !buffer.hasRemaining()
+
+    bytes[bytes.length - 1] = (byte) 0xC3
+    try {
+      PackageUrlCodec.decode(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip() as ByteBuffer)
+      fail()
+    }
+    catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'truncated encoding'() {
+    byte[] bytes = PackageUrlCodec.encode(PackageUrl.parse('pkg:maven/a/b@1'))
+    PackageUrlCodec.decode(Arrays.copyOf(bytes, bytes.length - 1))
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'unsupported version'() {
+    byte[] bytes = PackageUrlCodec.encode(PackageUrl.parse('pkg:maven/a/b@1'))
+    bytes[0] = 2
+    PackageUrlCodec.decode(bytes)
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'trailing bytes'() {
+    byte[] bytes = PackageUrlCodec.encode(PackageUrl.parse('pkg:maven/a/b@1'))
+    PackageUrlCodec.decode(Arrays.copyOf(bytes, bytes.length + 1))
+  }
+
+  @Test(expected = InvalidException.class)
+  void 'decoded values are validated'() {
+    // version containing a line terminator
+    byte[] bytes = [1, 2, 0x15, 1, 0x62, 2, 0x31, 0x0a] as byte[]
+    PackageUrlCodec.decode(bytes)
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlFingerprint} tests.
+ */
+class PackageUrlFingerprintTest
+    extends TestSupport
+{
+  @Test
+  void 'fingerprints are stable'() {
+    def purl = PackageUrl.parse('pkg:maven/org.apache/apache@23')
+    assert PackageUrlFingerprint.of64(purl) == 0x119daeb534af6768L
+    assert PackageUrlFingerprint.of(purl).toString() == '119daeb534af6768bfffafae219f30fe'
+    assert PackageUrlFingerprint.ofVersionless64(purl) == 0xb0d9afdf797ab2e8L
+    assert PackageUrlFingerprint.of64(PackageUrl.parse('pkg:npm/lodash@4.17.21')) == 0xed29e0f3e842fd79L
+  }
+
+  @Test
+  void 'rendered and unrendered fingerprints are equal'() {
+    ['pkg:maven/org.apache/apache@23',
+     'pkg:npm/%40babel/core@7.0.0?foo=bar#lib/index.js',
+     'pkg:golang/github.com/gorilla/context@234fd47e07d1004f0aed9c',
+     'pkg:generic/openssl@1.1.10g?download_url=https://openssl.org/source/openssl-1.1.0g.tar.gz&checksum=sha256:de4d501267da',
+    ].each {
+      def fresh = PackageUrl.parse(it)
+      def rendered = PackageUrl.parse(it)
+      rendered.toString()
+      assert PackageUrlFingerprint.of(fresh) == PackageUrlFingerprint.of(rendered)
+      assert PackageUrlFingerprint.ofVersionless(fresh) == PackageUrlFingerprint.ofVersionless(rendered)
+      assert PackageUrlFingerprint.of64(fresh) == PackageUrlFingerprint.of(fresh).high
+    }
+  }
+
+  @Test
+  void 'versionless fingerprints ignore version, qualifiers and subpath'() {
+    def base = PackageUrl.parse('pkg:npm/%40babel/core')
+    def versioned = PackageUrl.parse('pkg:npm/%40babel/core@7.0.0?foo=bar#lib')
+    assert PackageUrlFingerprint.ofVersionless(base) == PackageUrlFingerprint.ofVersionless(versioned)
+    assert PackageUrlFingerprint.ofVersionless(base) == PackageUrlFingerprint.of(base)
+    assert PackageUrlFingerprint.of(base) != PackageUrlFingerprint.of(versioned)
+    assert PackageUrlFingerprint.ofVersionless(base) != PackageUrlFingerprint.ofVersionless(PackageUrl.parse('pkg:npm/core'))
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.stream.Collectors
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.fail
+
+/**
+ * {@link PackageUrlIndexFile} tests.
+ */
+class PackageUrlIndexFileTest
+    extends TestSupport
+{
+  private static final List<String> VALUES = [
+      'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+      'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+      'pkg:maven/org.apache.logging.log4j/log4j-api@2.17.1',
+      'pkg:maven/org.apache.logging/logging-parent@5',
+      'pkg:maven/org.apache/apache@23',
+      'pkg:maven/org.apache.commons/commons-lang3@3.12.0',
+      'pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar',
+      'pkg:npm/lodash@4.17.21',
+      'pkg:npm/lodash@4.17.20',
+      'pkg:npm/lodash',
+      'pkg:npm/%40babel/core@7.0.0',
+      'pkg:pypi/django@4.0',
+  ]
+
+  private Path file
+
+  @Before
+  void setUp() {
+    file = Files.createTempFile('purls', '.idx')
+  }
+
+  @After
+  void tearDown() {
+    Files.deleteIfExists(file)
+  }
+
+  private PackageUrlIndexFile write(final List<String> values) {
+    PackageUrlIndexFile.write(file, values.stream().map { PackageUrl.parse(it) })
+    return PackageUrlIndexFile.open(file)
+  }
+
+  private static List<String> strings(final java.util.stream.Stream<PackageUrlIndexFile.Record> records) {
+    return records.map { it.canonical }.collect(Collectors.toList())
+  }
+
+  @Test
+  void 'find record ids'() {
+    def index = write(VALUES)
+    assert index.size() == VALUES.size()
+    VALUES.eachWithIndex { value, id ->
+      assert index.find(PackageUrl.parse(value)) == id
+    }
+    assert index.find(PackageUrl.parse('pkg:npm/lodash@1')) == -1
+    assert index.find(PackageUrl.parse('pkg:npm/lodash@4.17.2')) == -1
+    assert index.find(PackageUrl.parse('pkg:npm/lodash@4.17.210')) == -1
+    assert index.find(PackageUrl.parse('pkg:aaa/first')) == -1
+    assert index.find(PackageUrl.parse('pkg:zzz/last')) == -1
+    assert !index.contains(PackageUrl.parse('pkg:maven/org.apache.commons/commons-lang3'))
+  }
+
+  @Test
+  void 'entries are sorted'() {
+    def index = write(VALUES)
+    def entries = strings(index.entries())
+    assert entries == VALUES.collect { PackageUrl.parse(it).toString() }.sort()
+    assert index.entries().map { it.toPackageUrl() }.collect(Collectors.toList()) as Set ==
+        VALUES.collect { PackageUrl.parse(it) } as Set
+  }
+
+  @Test
+  void 'prefix scans'() {
+    def index = write(VALUES)
+    assert strings(index.ofType('npm')) == [
+        'pkg:npm/%40babel/core@7.0.0',
+        'pkg:npm/lodash',
+        'pkg:npm/lodash@4.17.20',
+        'pkg:npm/lodash@4.17.21',
+    ]
+    assert strings(index.withNamespacePrefix('maven', ['org.apache.logging.log4j'])) == [
+        'pkg:maven/org.apache.logging.log4j/log4j-api@2.17.1',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+    ]
+    assert strings(index.withNamespacePrefix('npm', ['@babel'])) == ['pkg:npm/%40babel/core@7.0.0']
+    assert strings(index.withPrefix('pkg:npm/lodash@')) == ['pkg:npm/lodash@4.17.20', 'pkg:npm/lodash@4.17.21']
+    assert index.ofType('cargo').count() == 0
+    assert index.withPrefix('pkg:zzz').count() == 0
+  }
+
+  @Test
+  void 'empty index'() {
+    def index = write([])
+    assert index.empty
+    assert index.find(PackageUrl.parse('pkg:npm/lodash')) == -1
+    assert index.entries().count() == 0
+  }
+
+  @Test
+  void 'many blocks across regions'() {
+    def values = (0..<2000).collect { "pkg:maven/org.example.group${it % 7}/artifact-${it}@1.${it}".toString() }
+    def writer = new PackageUrlIndexFile.Writer().regionShift(10)
+    values.eachWithIndex { value, id -> writer.add(PackageUrl.parse(value), id * 3L) }
+    writer.write(file)
+
+    def index = PackageUrlIndexFile.open(file)
+    assert Files.size(file) > 1 << 12
+    assert index.size() == values.size()
+    values.eachWithIndex { value, id ->
+      assert index.find(PackageUrl.parse(value)) == id * 3L
+      assert index.find(PackageUrl.parse(value + '0')) == -1
+    }
+    assert strings(index.entries()) == values.toSorted()
+    assert index.withNamespacePrefix('maven', ['org.example.group3']).count() ==
+        values.count { it.contains('group3/') }
+  }
+
+  @Test
+  void 'entries spilled to sorted runs'() {
+    def runs = Files.createTempDirectory('purls')
+    try {
+      def values = (0..<2000).collect { "pkg:npm/package-${(it * 7919) % 2000}@${it % 3}".toString() }
+      def writer = new PackageUrlIndexFile.Writer().runSize(10).tempDirectory(runs).regionShift(10)
+      values.eachWithIndex { value, id -> writer.add(PackageUrl.parse(value), id) }
+      assert runs.toFile().list().length == 200
+      writer.write(file)
+      assert runs.toFile().list().length == 0
+
+      def index = PackageUrlIndexFile.open(file)
+      assert index.size() == values.size()
+      values.eachWithIndex { value, id ->
+        assert index.find(PackageUrl.parse(value)) == id
+      }
+      assert strings(index.entries()) == values.toSorted()
+    }
+    finally {
+      Files.delete(runs)
+    }
+  }
+
+  @Test
+  void 'duplicates in separate runs rejected'() {
+    def runs = Files.createTempDirectory('purls')
+    try {
+      def writer = new PackageUrlIndexFile.Writer().runSize(1).tempDirectory(runs)
+      writer.add(PackageUrl.parse('pkg:npm/lodash'), 0).add(PackageUrl.parse('pkg:npm/react'), 1)
+          .add(PackageUrl.parse('pkg:NPM/lodash'), 2)
+      try {
+        writer.write(file)
+        fail()
+      }
+      catch (IllegalArgumentException e) {
+        assert e.message == 'Duplicate package-url: pkg:npm/lodash'
+      }
+      assert Files.notExists(file)
+      assert runs.toFile().list().length == 0
+    }
+    finally {
+      Files.delete(runs)
+    }
+  }
+
+  @Test
+  void 'concurrent lookups'() {
+    def values = (0..<500).collect { "pkg:npm/package-${it}@${it}".toString() }
+    def index = write(values)
+    def purls = values.collect { PackageUrl.parse(it) }
+    def misses = purls.parallelStream().filter { index.find(it) != purls.indexOf(it) }.count()
+    assert misses == 0
+  }
+
+  @Test(expected = IllegalArgumentException)
+  void 'duplicates rejected'() {
+    write(['pkg:npm/lodash', 'pkg:NPM/lodash'])
+  }
+
+  @Test(expected = IOException)
+  void 'invalid file rejected'() {
+    file.toFile().setText('not an index file but long enough to hold a header')
+    PackageUrlIndexFile.open(file)
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlIndex} tests.
+ */
+class PackageUrlIndexTest
+    extends TestSupport
+{
+  private static final List<String> VALUES = [
+      'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+      'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+      'pkg:maven/org.apache.logging.log4j/log4j-api@2.17.1',
+      'pkg:maven/org.apache.logging/logging-parent@5',
+      'pkg:maven/org.apache/apache@23',
+      'pkg:maven/org.apache.commons/commons-lang3@3.12.0',
+      'pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar',
+      'pkg:maven/org.apache.commons/commons-lang3@3.12.0',
+      'pkg:npm/lodash@4.17.21',
+      'pkg:npm/lodash@4.17.20',
+      'pkg:npm/lodash',
+      'pkg:npm/%40babel/core@7.0.0',
+      'pkg:pypi/django@4.0',
+  ]
+
+  private PackageUrlIndex index = PackageUrlIndex.of(VALUES.stream().map { PackageUrl.parse(it) })
+
+  private static List<String> strings(final List<PackageUrl> purls) {
+    return purls.collect { it.toString() }
+  }
+
+  @Test
+  void 'entries are sorted and distinct'() {
+    assert index.size() == VALUES.size() - 1
+    def entries = index.entries()
+    assert entries.toSorted(PackageUrlIndex.ORDER) == entries
+    assert new HashSet(entries).size() == entries.size()
+    assert index.contains(PackageUrl.parse('pkg:npm/lodash@4.17.20'))
+    assert !index.contains(PackageUrl.parse('pkg:npm/lodash@1'))
+  }
+
+  @Test
+  void 'query by type'() {
+    assert strings(index.ofType('npm')) == [
+        'pkg:npm/lodash',
+        'pkg:npm/lodash@4.17.20',
+        'pkg:npm/lodash@4.17.21',
+        'pkg:npm/%40babel/core@7.0.0',
+    ]
+    assert index.ofType('cargo').isEmpty()
+  }
+
+  @Test
+  void 'query by namespace'() {
+    assert strings(index.inNamespace('maven', ['org.apache.logging'])) == [
+        'pkg:maven/org.apache.logging/logging-parent@5'
+    ]
+    assert strings(index.withNamespacePrefix('maven', ['org.apache.logging.log4j'])) == [
+        'pkg:maven/org.apache.logging.log4j/log4j-api@2.17.1',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+    ]
+    assert index.withNamespacePrefix('maven', []).size() == 7
+    assert strings(index.inNamespace('npm', null)) == [
+        'pkg:npm/lodash',
+        'pkg:npm/lodash@4.17.20',
+        'pkg:npm/lodash@4.17.21',
+    ]
+  }
+
+  @Test
+  void 'query versions'() {
+    assert strings(index.versionsOf('maven', ['org.apache.commons'], 'commons-lang3')) == [
+        'pkg:maven/org.apache.commons/commons-lang3@3.12.0',
+        'pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar',
+    ]
+    assert strings(index.versionRange('npm', null, 'lodash', '4.17.20', null)) == [
+        'pkg:npm/lodash@4.17.20',
+        'pkg:npm/lodash@4.17.21',
+    ]
+    assert strings(index.versionRange('npm', null, 'lodash', null, '4.17.21')) == [
+        'pkg:npm/lodash',
+        'pkg:npm/lodash@4.17.20',
+    ]
+    assert index.versionRange('npm', null, 'lodash', '5', '6').isEmpty()
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  void 'results are unmodifiable'() {
+    index.ofType('npm').clear()
+  }
+}
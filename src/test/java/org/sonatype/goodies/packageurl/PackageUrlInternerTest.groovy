@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlInterner} tests.
+ */
+class PackageUrlInternerTest
+    extends TestSupport
+{
+  private static void assertInterning(final PackageUrlInterner interner) {
+    def purl1 = interner.intern(PackageUrl.parse('pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar'))
+    def purl2 = interner.intern(PackageUrl.parse('pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar'))
+    def purl3 = interner.intern(PackageUrl.parse('pkg:maven/org.apache.commons/commons-text@1.9?type=jar'))
+
+    assert purl1.is(purl2)
+    assert !purl1.is(purl3)
+    assert purl1.type.is(purl3.type)
+    assert purl1.namespace.is(purl3.namespace)
+    assert purl1.qualifiers.is(purl3.qualifiers)
+    assert purl1.toString() == 'pkg:maven/org.apache.commons/commons-lang3@3.12.0?type=jar'
+  }
+
+  @Test
+  void 'strong interning'() {
+    assertInterning(PackageUrlInterner.strong())
+  }
+
+  @Test
+  void 'weak interning'() {
+    assertInterning(PackageUrlInterner.weak())
+  }
+
+  @Test
+  void 'bounded size'() {
+    def interner = PackageUrlInterner.strong(1)
+    def purl1 = interner.intern(PackageUrl.parse('pkg:foo/bar@1'))
+    def purl2 = PackageUrl.parse('pkg:foo/bar@2')
+
+    assert interner.intern(PackageUrl.parse('pkg:foo/bar@1')).is(purl1)
+    assert interner.intern(purl2) == purl2
+    assert !interner.intern(purl2).is(interner.intern(purl2))
+  }
+
+  @Test
+  void 'parser and builder interning'() {
+    def interner = PackageUrlInterner.strong()
+    def parser = PackageUrl.parser().interner(interner)
+
+    def purl1 = parser.parse('pkg:npm/%40angular/core@14.0.1')
+    def purl2 = parser.parse('pkg:npm/%40angular/core@14.0.1')
+    def purl3 = PackageUrl.builder()
+        .interner(interner)
+        .type('npm')
+        .namespace('@angular')
+        .name('core')
+        .version('14.0.1')
+        .build()
+
+    assert purl1.is(purl2)
+    assert purl1.is(purl3)
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'invalid max-size'() {
+    PackageUrlInterner.weak(0)
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlNormalizers} tests.
+ */
+class PackageUrlNormalizersTest
+    extends TestSupport
+{
+  @Test
+  void 'lower-case returns same instances when unchanged'() {
+    def normalizer = PackageUrlNormalizers.lowerCase()
+    def namespace = ['vendor', 'group']
+    assert normalizer.normalizeNamespace(namespace).is(namespace)
+    assert normalizer.normalizeNamespace(null) == null
+    def name = 'name'
+    assert normalizer.normalizeName(name).is(name)
+
+    assert normalizer.normalizeNamespace(['vendor', 'Group']) == ['vendor', 'group']
+    assert normalizer.normalizeName('Name') == 'name'
+  }
+
+  @Test
+  void 'pypi returns same instance when unchanged'() {
+    def normalizer = PackageUrlNormalizers.defaults().get('pypi')
+    def name = 'django-allauth'
+    assert normalizer.normalizeName(name).is(name)
+    assert normalizer.normalizeName('Django_AllAuth') == 'django-allauth'
+  }
+
+  @Test
+  void 'spec types are normalized'() {
+    assert PackageUrl.parse('pkg:composer/Laravel/Laravel@5.5.0').toString() == 'pkg:composer/laravel/laravel@5.5.0'
+    assert PackageUrl.parse('pkg:deb/Debian/Curl@7.50.3-1').toString() == 'pkg:deb/debian/curl@7.50.3-1'
+    assert PackageUrl.parse('pkg:hex/Jason@1.1.2').toString() == 'pkg:hex/jason@1.1.2'
+    assert PackageUrl.parse('pkg:bitnami/WordPress@6.2.0').toString() == 'pkg:bitnami/wordpress@6.2.0'
+    assert PackageUrl.parse('pkg:maven/Org.Example/Name@1').toString() == 'pkg:maven/Org.Example/Name@1'
+  }
+
+  @Test
+  void 'custom type per parser and builder'() {
+    def normalizer = new PackageUrlNormalizer() {
+      @Override
+      String normalizeName(final String name) {
+        return name.toUpperCase(Locale.ENGLISH)
+      }
+    }
+    def normalizers = PackageUrlNormalizers.defaults().with('Internal', normalizer)
+    assert normalizers.get('internal').is(normalizer)
+    assert PackageUrlNormalizers.defaults().get('internal') == null
+
+    def parser = PackageUrl.parser().normalizers(normalizers).freeze()
+    assert parser.parse('pkg:internal/acme/widget@1').name == 'WIDGET'
+    assert PackageUrl.parse('pkg:internal/acme/widget@1').name == 'widget'
+    assert PackageUrl.parser().normalizers(normalizers).typeSpecificTransformations(false)
+        .parse('pkg:internal/acme/widget@1').name == 'widget'
+
+    def builder = PackageUrl.builder().type('internal').name('widget')
+    assert builder.build().name == 'widget'
+    assert builder.normalizers(normalizers).build().name == 'WIDGET'
+
+    assert normalizers.without('INTERNAL').get('internal') == null
+    assert normalizers.get('internal').is(normalizer)
+  }
+
+  @Test
+  void 'cache keeps normalizers apart'() {
+    def normalizers = PackageUrlNormalizers.defaults().without('github')
+    def cache = PackageUrlCache.lru(100)
+    def value = 'pkg:github/Acme/Widget@1'
+    assert PackageUrl.parser().cache(cache).parse(value).name == 'widget'
+    assert PackageUrl.parser().cache(cache).normalizers(normalizers).parse(value).name == 'Widget'
+    assert PackageUrl.parser().cache(cache).parse(value).name == 'widget'
+  }
+}
@@ -12,6 +12,8 @@
  */
 package org.sonatype.goodies.packageurl
 
+import java.util.stream.Collectors
+
 import org.sonatype.goodies.testsupport.TestSupport
 
 import org.junit.Test
@@ -427,4 +429,255 @@ class PackageUrlParserTest
       assert subpath == ['qux']
     }
   }
+
+  private static String parseResult(final PackageUrlParser parser, final String value) {
+    try {
+      def purl = parser.parse(value)
+      return "${purl.explain()} -> $purl"
+    }
+    catch (e) {
+      return "${e.class.simpleName}: ${e.message}"
+    }
+  }
+
+  @Test
+  void engines_agree() {
+    def scanner = PackageUrl.parser().engine(PackageUrlParser.Engine.SCANNER)
+    def regex = PackageUrl.parser().engine(PackageUrlParser.Engine.REGEX)
+
+    def values = TestSuiteData.get('test-suite-data.json').collect { it.purl }
+    values += [
+        'pkg:foo/bar@1?a=b#c&d=e',
+        'pkg:foo/bar@1?a=b&1=2',
+        'pkg:foo/bar@1?x#y',
+        'pkg:foo/bar?a=b#c',
+        'pkg:foo/bar?a=b&1=2',
+        'pkg:foo/bar@1@2?a=b=c&d=#',
+        'pkg:foo/bar#',
+        'pkg:foo/bar@1#a\nb',
+        'pkg:foo/bar@1?a=b?c=d',
+        'pkg:foo/bar@1?x&?a=b',
+        'pkg:foo/bar@1?x&=?a=b#c',
+        'pkg:foo/bar@1?&?a#b?c=d',
+        'pkg:foo/bar@1' + '?&' * 1000,
+        'pkg:foo//bar',
+        'pkg:foo/a//bar',
+        'foo:///bar',
+        'foo://a/bar@1',
+        'foo:',
+        ':bar',
+        'pkg:',
+        ''
+    ]
+
+    values.each { value ->
+      log "Value: $value"
+      assert parseResult(scanner, value) == parseResult(regex, value)
+    }
+  }
+
+  @Test
+  void parseLines() {
+    def input = 'pkg:maven/junit/junit@4.12\n\n  \npkg:1foo/bar\r\nnpm:lodash@4.17.21\npkg:foo///a/bar\n'
+    def lines = PackageUrl.parser().parseLines(new StringReader(input)).withCloseable { it.collect(Collectors.toList()) }
+    log lines
+
+    assert lines.size() == 4
+    lines[0].with {
+      assert valid
+      assert lineNumber == 1
+      assert packageUrl.toString() == 'pkg:maven/junit/junit@4.12'
+    }
+    lines[1].with {
+      assert !valid
+      assert lineNumber == 4
+      assert line == 'pkg:1foo/bar'
+      assert errorType == InvalidException
+      assert packageUrl == null
+    }
+    lines[2].with {
+      assert valid
+      assert lineNumber == 5
+      assert packageUrl.toString() == 'pkg:npm/lodash@4.17.21'
+    }
+    lines[3].with {
+      assert !valid
+      assert lineNumber == 6
+      assert errorType == EmptySegmentException
+    }
+  }
+
+  @Test
+  void parseLines_path() {
+    def file = File.createTempFile('purls', '.txt')
+    try {
+      file.setText('pkg:npm/%E4%B8%AD%E6%96%87@1.0.0\n', 'UTF-8')
+      def lines = PackageUrl.parser().parseLines(file.toPath()).withCloseable { it.collect(Collectors.toList()) }
+      assert lines.size() == 1
+      assert lines[0].packageUrl.name == '\u4e2d\u6587'
+    }
+    finally {
+      file.delete()
+    }
+  }
+
+  @Test
+  void parseLines_malformedUtf8() {
+    byte[] bytes = 'pkg:npm/a@1\npkg:npm/b\u00e9@1\npkg:npm/c@1\n'.getBytes('UTF-8')
+    // truncate the encoding of the second line
+    int index = bytes.findIndexOf { it == (byte) 0xC3 }
+    bytes[index + 1] = (byte) '@'
+    bytes[index + 2] = (byte) '2'
+
+    def file = File.createTempFile('purls', '.txt')
+    try {
+      file.bytes = bytes
+      [
+          PackageUrl.parser().parseLines(file.toPath()),
+          PackageUrl.parser().parseLines(new ByteArrayInputStream(bytes))
+      ].each { stream ->
+        def lines = stream.withCloseable { it.collect(Collectors.toList()) }
+        assert lines.size() == 3
+        assert lines[0].packageUrl.name == 'a'
+        assert lines[1].line.contains('\uFFFD')
+        assert lines[2].packageUrl.name == 'c'
+      }
+    }
+    finally {
+      file.delete()
+    }
+  }
+
+  @Test
+  void tryParse_valid() {
+    def result = PackageUrl.parser().tryParse('pkg:maven/junit/junit@4.12')
+    assert result.valid
+    assert result.reason == null
+    assert result.offset == -1
+    assert result.packageUrl == parse('pkg:maven/junit/junit@4.12')
+    assert result.orElseThrow() == result.packageUrl
+  }
+
+  @Test
+  void tryParse_invalid() {
+    PackageUrl.parser().tryParse('pkg:1foo/bar').with {
+      assert !valid
+      assert reason == PackageUrlParseResult.Reason.INVALID_SYNTAX
+      assert offset == 4
+      assert message == 'pkg:1foo/bar'
+      assert packageUrl == null
+    }
+    PackageUrl.parser().tryParse('pkg:foo/a//b/bar').with {
+      assert reason == PackageUrlParseResult.Reason.EMPTY_SEGMENT
+      assert offset == 10
+      assert message == 'Empty segment in: a//b'
+    }
+    PackageUrl.parser().tryParse('pkg:foo/bar#a/%2E%2E').with {
+      assert reason == PackageUrlParseResult.Reason.ILLEGAL_SEGMENT_CONTENT
+      assert offset == 14
+      assert message == 'Illegal segment content: .. in: a/%2E%2E'
+      assert toException(true) instanceof IllegalSegmentContentException
+    }
+    PackageUrl.parser().tryParse('pkg:foo/bar@1.0%G1').with {
+      assert reason == PackageUrlParseResult.Reason.MALFORMED_ESCAPE
+      assert offset == 15
+      assert toException(false) instanceof IllegalArgumentException
+    }
+  }
+
+  @Test
+  void tryParse_matches_parse() {
+    def values = [
+        'pkg:1foo/bar',
+        'pkg:foo/bar@',
+        'pkg:foo/bar?1=a',
+        'pkg:foo///bar',
+        'pkg:foo/a%2Fb/bar',
+        'pkg:foo/bar#.',
+        'pkg:foo/bar@%4',
+        'pkg:foo/bar?a=%ZZ'
+    ]
+    PackageUrlParser.Engine.values().each { engine ->
+      def parser = PackageUrl.parser().engine(engine)
+      values.each { value ->
+        def result = parser.tryParse(value)
+        assert !result.valid
+        assert !parser.validate(value).valid
+        try {
+          parser.parse(value)
+          fail()
+        }
+        catch (RuntimeException e) {
+          log("$engine $value -> $result")
+          assert e.class == result.reason.exceptionType
+          assert e.message == result.message
+        }
+      }
+    }
+  }
+
+  @Test
+  void validate() {
+    def result = PackageUrl.parser().validate('pkg:maven/junit/junit@4.12')
+    assert result.valid
+    assert result.packageUrl == null
+  }
+
+  @Test
+  void stackTraces_disabled() {
+    try {
+      PackageUrl.parser().stackTraces(false).parse('pkg:1foo/bar')
+      fail()
+    }
+    catch (InvalidException e) {
+      assert e.stackTrace.length == 0
+    }
+  }
+
+  @Test
+  void 'frozen parser'() {
+    def parser = PackageUrl.parser().typeSpecificTransformations(false).freeze()
+    assert parser.frozen
+    assert parser.parse('pkg:github/Foo/Bar').namespace == ['Foo']
+    try {
+      parser.cache(null)
+      fail()
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+    assert !PackageUrl.parser().frozen
+  }
+
+  @Test
+  void 'qualifiers are normalized'() {
+    assert parse('pkg:npm/a?b=1&a=2&b=3').qualifiers == [a: '2', b: '3']
+    assert parse('pkg:npm/a?a=1&a=').qualifiers == null
+    assert parse('pkg:npm/a?a=1&b=%20').qualifiers == [a: '1']
+    assert parse('pkg:npm/a?A=1&a=').qualifiers == [a: '1']
+    assert parse('pkg:npm/a?a=&A=1').qualifiers == [a: '1']
+    assert parse('pkg:npm/a?a=1&A=2').qualifiers == [a: '2']
+    assert parse('pkg:npm/a?repository_url=x').qualifiers.keySet()[0].is('repository_url')
+  }
+
+  @Test
+  void 'parse range of chars'() {
+    def chars = '[pkg:Maven/Org.Example/lib@1.0?Classifier=a%20b&type=jar#x/y]'.toCharArray()
+    def purl = PackageUrl.parser().parse(chars, 1, chars.length - 2)
+    assert purl == parse('pkg:Maven/Org.Example/lib@1.0?Classifier=a%20b&type=jar#x/y')
+    assert purl.type.is('maven')
+
+    def cache = PackageUrlCache.lru(16)
+    def parser = PackageUrl.parser().cache(cache)
+    assert parser.parse(chars, 1, chars.length - 2).is(parser.parse(chars, 1, chars.length - 2))
+    assert cache.size() == 1
+
+    try {
+      PackageUrl.parser().parse('xpkg:1foo/bar'.toCharArray(), 1, 12)
+      fail()
+    }
+    catch (InvalidException e) {
+      assert e.message == 'pkg:1foo/bar'
+    }
+  }
 }
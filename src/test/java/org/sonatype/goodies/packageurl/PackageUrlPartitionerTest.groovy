@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlPartitioner} tests.
+ */
+class PackageUrlPartitionerTest
+    extends TestSupport
+{
+  private static final List<PackageUrl> PURLS = (0..<5000).collect {
+    PackageUrl.parse("pkg:maven/org.example.group${it % 13}/artifact-${it}@1.${it}")
+  }
+
+  @Test
+  void 'partitions are in range and balanced'() {
+    def partitioner = PackageUrlPartitioner.of(10)
+    def counts = PURLS.countBy { partitioner.partition(it) }
+    assert counts.keySet() == (0..<10) as Set
+    assert counts.values().every { it > 400 && it < 600 }
+  }
+
+  @Test
+  void 'versions share a partition'() {
+    def partitioner = PackageUrlPartitioner.of(7)
+    def partitions = (0..<100).collect {
+      partitioner.partition(PackageUrl.parse("pkg:npm/lodash@4.17.${it}"))
+    }
+    assert partitions.unique().size() == 1
+  }
+
+  @Test
+  void 'growing moves entries only to the new partition'() {
+    def before = PackageUrlPartitioner.of(8)
+    def after = PackageUrlPartitioner.of(9)
+    int moved = 0
+    PURLS.each {
+      int from = before.partition(it)
+      int to = after.partition(it)
+      if (from != to) {
+        assert to == 8
+        moved++
+      }
+    }
+    assert moved > 400 && moved < 700
+  }
+
+  @Test
+  void 'single partition'() {
+    def partitioner = PackageUrlPartitioner.of(1)
+    assert PURLS.every { partitioner.partition(it) == 0 }
+    assert partitioner.partition(Long.MIN_VALUE) == 0
+  }
+
+  @Test(expected = IllegalArgumentException)
+  void 'partitions must be positive'() {
+    PackageUrlPartitioner.of(0)
+  }
+}
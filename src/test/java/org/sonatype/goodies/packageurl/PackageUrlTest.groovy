@@ -12,6 +12,11 @@
  */
 package org.sonatype.goodies.packageurl
 
+import java.io.InvalidObjectException
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
 import org.sonatype.goodies.testsupport.TestSupport
 
 import org.junit.Test
@@ -80,4 +85,156 @@ class PackageUrlTest
         .build(),
         'pkg:foo/n@1.2.3?a=b&c=d'
   }
+
+  @Test
+  void 'rendering, hash-code and uri are cached'() {
+    def purl = PackageUrl.parse('pkg:foo/bar/baz@qux?a=b#blah')
+
+    assert purl.toStringIfRendered(RenderFlavor.SCHEME) == null
+    assert purl.toString(RenderFlavor.SCHEME).is(purl.toString(RenderFlavor.SCHEME))
+    assert purl.toStringIfRendered(RenderFlavor.SCHEME).is(purl.toString(RenderFlavor.SCHEME))
+    assert purl.toString(RenderFlavor.SCHEMELESS).is(purl.toString(RenderFlavor.SCHEMELESS))
+    assert purl.toString(RenderFlavor.SCHEMELESS) == 'foo:bar/baz@qux?a=b#blah'
+    assert purl.toUri().is(purl.toUri())
+    assert purl.toUri() == URI.create('pkg:foo/bar/baz@qux?a=b#blah')
+
+    assert purl.hashCode() == Objects.hash(purl.type, purl.namespace, purl.name, purl.version, purl.qualifiers,
+        purl.subpath)
+  }
+
+  @Test
+  void 'equals with cached hash-codes'() {
+    def purl1 = PackageUrl.parse('pkg:foo/bar@1')
+    def purl2 = PackageUrl.parse('pkg:foo/bar@1')
+    def purl3 = PackageUrl.parse('pkg:foo/bar@2')
+
+    purl1.hashCode()
+    purl2.hashCode()
+    purl3.hashCode()
+    assert purl1 == purl2
+    assert purl1 != purl3
+  }
+
+  @Test
+  void 'qualifier lookup'() {
+    def purl = PackageUrl.parse('pkg:maven/org.example/demo@1.0?type=jar&classifier=sources')
+    assert purl.getQualifier('type') == 'jar'
+    assert purl.getQualifier('classifier') == 'sources'
+    assert purl.getQualifier('os') == null
+    assert PackageUrl.parse('pkg:maven/org.example/demo@1.0').getQualifier('type') == null
+  }
+
+  @Test
+  void 'builder shares qualifiers until mutated'() {
+    def purl = PackageUrl.parse('pkg:maven/org.example/demo@1.0?type=jar')
+    assert purl.asBuilder().version('2.0').build().qualifiers.is(purl.qualifiers)
+
+    def mutated = purl.asBuilder().qualifier('classifier', 'sources').build()
+    assert mutated.qualifiers == [classifier: 'sources', type: 'jar']
+    assert purl.qualifiers == [type: 'jar']
+  }
+
+  @Test
+  void 'segment strings are cached and shared by builder'() {
+    def purl = PackageUrl.parse('pkg:golang/google.golang.org/genproto@abcdedf#googleapis/api/annotations')
+    assert purl.namespaceAsString == 'google.golang.org'
+    assert purl.subpathAsString == 'googleapis/api/annotations'
+    assert purl.subpathAsString.is(purl.subpathAsString)
+
+    def copy = purl.asBuilder().version('1.0').build()
+    assert copy.namespace.is(purl.namespace)
+    assert copy.subpath.is(purl.subpath)
+  }
+
+  @Test
+  void 'append and write rendering'() {
+    def value = 'pkg:maven/org.example/na%20me@1.0%2B2?classifier=sources&repository_url=repo.example.com/a%20b#sub/d%C3%A9j%C3%A0'
+    for (RenderFlavor flavor : RenderFlavor.values()) {
+      def purl = PackageUrl.parse(value)
+
+      def buff = new StringBuilder('>')
+      assert purl.appendTo(buff, flavor).is(buff)
+      def writer = new StringWriter()
+      purl.appendTo(writer, flavor)
+      def buffer = ByteBuffer.allocate(256)
+      int written = purl.writeUtf8(buffer, flavor)
+      def stream = new ByteArrayOutputStream()
+      assert purl.writeUtf8(stream, flavor) == written
+
+      // directly encoded, then cached
+      def expected = purl.toString(flavor)
+      assert buff.toString() == '>' + expected
+      assert writer.toString() == expected
+      assert written == expected.length()
+      assert new String(buffer.array(), 0, written, StandardCharsets.UTF_8) == expected
+      assert new String(stream.toByteArray(), StandardCharsets.UTF_8) == expected
+      assert purl.appendTo(new StringBuilder(), flavor).toString() == expected
+    }
+  }
+
+  @Test
+  void 'write to full buffer leaves position unchanged'() {
+    def purl = PackageUrl.parse('pkg:maven/org.example/name@1.0')
+    def buffer = ByteBuffer.allocate(10)
+    buffer.put((byte) 1)
+    try {
+      purl.writeUtf8(buffer, RenderFlavor.SCHEME)
+      assert false
+    }
+    catch (BufferOverflowException e) {
+      assert buffer.position() == 1
+    }
+  }
+
+  private static byte[] serialize(final Object value) {
+    def buff = new ByteArrayOutputStream()
+    new ObjectOutputStream(buff).withCloseable { it.writeObject(value) }
+    return buff.toByteArray()
+  }
+
+  private static Object deserialize(final byte[] bytes) {
+    return new ObjectInputStream(new ByteArrayInputStream(bytes)).withCloseable { it.readObject() }
+  }
+
+  @Test
+  void 'serialization round-trip'() {
+    def purl = PackageUrl.parse('pkg:maven/org.example/demo@1.0?type=jar&classifier=sources#a/b')
+    byte[] bytes = serialize(purl)
+    def copy = deserialize(bytes) as PackageUrl
+    assert copy == purl
+    assert copy.namespace instanceof SegmentList
+    assert copy.qualifiers instanceof QualifierMap
+    assert copy.subpath instanceof SegmentList
+
+    // field serialization of earlier versions
+    byte[] legacy = getClass().getResource('/fixtures/packageurl-1.2.ser').bytes
+    log "Serialized size: ${bytes.length}, earlier: ${legacy.length}"
+    assert bytes.length < legacy.length / 2
+  }
+
+  @Test
+  void 'deserialize earlier version'() {
+    byte[] legacy = getClass().getResource('/fixtures/packageurl-1.2.ser').bytes
+    def purl = deserialize(legacy) as PackageUrl
+    assert purl == PackageUrl.parse('pkg:maven/org.example/demo@1.0?type=jar&classifier=sources#a/b')
+    assert purl.namespace instanceof SegmentList
+    assert purl.qualifiers instanceof QualifierMap
+    assert purl.getQualifier('type') == 'jar'
+    assert purl.subpathAsString == 'a/b'
+  }
+
+  @Test
+  void 'serialization round-trip of unpaired surrogates'() {
+    def purl = PackageUrl.builder().type('generic').name('a\uD800b').version('1').qualifier('k', '\uDC00').build()
+    def copy = deserialize(serialize(purl)) as PackageUrl
+    assert copy == purl
+    assert copy.name == 'a\uD800b'
+    assert copy.qualifiers instanceof QualifierMap
+  }
+
+  @Test(expected = InvalidObjectException.class)
+  void 'deserialization validates'() {
+    def invalid = PackageUrl.ofUnmodifiable('maven', SegmentList.of(['a/b'] as String[]), 'c', null, null, null)
+    deserialize(serialize(invalid))
+  }
 }
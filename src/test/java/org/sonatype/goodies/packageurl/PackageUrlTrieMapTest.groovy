@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link PackageUrlTrieMap} and {@link PackageUrlTrieSet} tests.
+ */
+class PackageUrlTrieMapTest
+    extends TestSupport
+{
+  private static List<PackageUrl> purls() {
+    def result = TestSuiteData.get('test-suite-data.json')
+        .findAll { !it.is_invalid }
+        .collect { PackageUrl.parse(it.purl) }
+    result += [
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0?type=pom',
+        'pkg:maven/org.apache.logging.log4j/log4j-api@2.17.1',
+        'pkg:maven/org.apache.logging/logging-parent@5',
+        'pkg:golang/github.com/gorilla/mux@v1.8.0',
+        'pkg:golang/github.com/gorilla/mux@v1.8.0#sub',
+        'pkg:golang/github.com/gorilla@v1',
+        'pkg:npm/lodash',
+        'pkg:npm/lodash@4.17.21',
+    ].collect { PackageUrl.parse(it) }
+    result << PackageUrl.builder().type('npm').namespace([]).name('lodash').build()
+    return result
+  }
+
+  @Test
+  void 'behaves as map'() {
+    def expected = new HashMap<PackageUrl, Integer>()
+    def map = new PackageUrlTrieMap<Integer>()
+    def random = new Random(42)
+    def keys = purls()
+    1000.times {
+      def key = keys[random.nextInt(keys.size())]
+      if (random.nextInt(3) == 0) {
+        assert map.remove(key) == expected.remove(key)
+      }
+      else {
+        assert map.put(key, it) == expected.put(key, it)
+      }
+      assert map.size() == expected.size()
+    }
+    assert map == expected
+    assert expected == map
+    assert map.hashCode() == expected.hashCode()
+    keys.each { assert map.get(it) == expected.get(it) }
+    assert !map.containsKey('pkg:npm/lodash')
+  }
+
+  @Test
+  void 'iteration is ordered by components and supports removal'() {
+    def keys = purls()
+    def map = new PackageUrlTrieMap<String>()
+    keys.each { map.put(it, it.toString()) }
+    assert map.size() == keys.toSet().size()
+
+    map.entrySet().each { assert it.value == it.key.toString() }
+    def types = map.keySet().collect { it.type }
+    assert types == types.toSorted()
+
+    def iterator = map.keySet().iterator()
+    while (iterator.hasNext()) {
+      if (iterator.next().type == 'maven') {
+        iterator.remove()
+      }
+    }
+    assert map.keySet().every { it.type != 'maven' }
+    assert map.size() == keys.toSet().count { it.type != 'maven' }
+
+    map.entrySet().each { it.value = 'x' }
+    assert map.values().every { it == 'x' }
+  }
+
+  @Test
+  void 'prefix iteration'() {
+    def map = new PackageUrlTrieMap<Boolean>()
+    purls().each { map.put(it, true) }
+
+    assert map.versionsOf('maven', ['org.apache.logging.log4j'], 'log4j-core').map { it.key.toString() }.toList() == [
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.14.0?type=pom',
+        'pkg:maven/org.apache.logging.log4j/log4j-core@2.17.1',
+    ]
+    assert map.withNamespacePrefix('golang', ['github.com']).map { it.key.toString() }.toList() == [
+        'pkg:golang/github.com/gorilla@v1',
+        'pkg:golang/github.com/gorilla/mux@v1.8.0',
+        'pkg:golang/github.com/gorilla/mux@v1.8.0#sub',
+    ]
+    assert map.withNamespacePrefix('golang', ['github.com', 'gorilla']).map { it.key.toString() }.toList() == [
+        'pkg:golang/github.com/gorilla/mux@v1.8.0',
+        'pkg:golang/github.com/gorilla/mux@v1.8.0#sub',
+    ]
+    assert map.versionsOf('npm', null, 'lodash').count() == 2
+    assert map.versionsOf('npm', [], 'lodash').count() == 1
+    assert map.ofType('npm').allMatch { it.key.type == 'npm' }
+    assert map.ofType('nope').count() == 0
+    assert map.withNamespacePrefix('maven', ['nope']).count() == 0
+  }
+
+  @Test
+  void 'keys share namespaces'() {
+    def map = new PackageUrlTrieMap<Boolean>()
+    map.put(PackageUrl.parse('pkg:maven/org.example/a@1'), true)
+    map.put(PackageUrl.parse('pkg:maven/org.example/b@1'), true)
+    def keys = map.keySet().toList()
+    assert keys*.name == ['a', 'b']
+    assert keys[0].namespace.is(keys[1].namespace)
+  }
+
+  @Test
+  void 'behaves as set'() {
+    def keys = purls()
+    def set = new PackageUrlTrieSet(keys)
+    assert set == keys.toSet()
+    assert set.contains(keys[0])
+    assert !set.add(keys[0])
+    assert set.remove(keys[0])
+    assert !set.contains(keys[0])
+    assert set.ofType('golang').count() == keys.toSet().count { it.type == 'golang' }
+  }
+}
@@ -12,6 +12,8 @@
  */
 package org.sonatype.goodies.packageurl
 
+import java.util.regex.Pattern
+
 import org.sonatype.goodies.testsupport.TestSupport
 
 import org.junit.Test
@@ -107,4 +109,50 @@ class PackageUrlValidatorTest
   void 'subpath is nullable'() {
     validateSubpath(null)
   }
+
+  //
+  // Patterns
+  //
+
+  private static boolean accepts(final Closure validation) {
+    try {
+      validation.call()
+      return true
+    }
+    catch (InvalidException e) {
+      return false
+    }
+  }
+
+  @Test
+  void 'tables accept the same values as patterns'() {
+    def checks = [
+        (PackageUrlParser.TYPE)             : { String value -> validateType(value) },
+        (PackageUrlParser.NAMESPACE_SEGMENT): { String value -> validateNamespace([value]) },
+        (PackageUrlParser.VERSION)          : { String value -> validateVersion(value) },
+        (PackageUrlParser.QUALIFIER_KEY)    : { String value -> validateQualifiers([(value): 'v']) },
+        (PackageUrlParser.SUBPATH_SEGMENT)  : { String value -> validateSubpath([value]) }
+    ]
+
+    def values = ['']
+    for (int c = 0; c < 0x10000; c++) {
+      values << String.valueOf((char) c)
+    }
+    def random = new Random(1234)
+    def chars = 'aZ09.+-_/@%: \n\r\u0085\u2028\u00e9'
+    10000.times {
+      def buff = new StringBuilder()
+      (1 + random.nextInt(6)).times {
+        buff.append(chars.charAt(random.nextInt(chars.length())))
+      }
+      values << buff.toString()
+    }
+
+    checks.each { regex, check ->
+      def pattern = Pattern.compile(regex)
+      values.each { value ->
+        assert accepts { check(value) } == pattern.matcher(value).matches(): "$regex: $value"
+      }
+    }
+  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+import static org.junit.Assert.fail
+
+/**
+ * {@link PackageUrlView} tests.
+ */
+class PackageUrlViewTest
+    extends TestSupport
+{
+  @Test
+  void 'view range of sequence'() {
+    def value = 'pkg:maven/org.example/foo%20bar@1.0?classifier=sources&Type=jar&empty=#src/main'
+    def source = "  ${value} ".toString()
+    def view = new PackageUrlView()
+
+    assert view.reset(source, 2, source.length() - 1)
+    assert view.valid
+    assert view.typeStart == 6
+    assert source.substring(view.typeStart, view.typeEnd) == 'maven'
+    assert source.substring(view.namespaceStart, view.namespaceEnd) == 'org.example'
+    assert source.substring(view.nameStart, view.nameEnd) == 'foo%20bar'
+    assert source.substring(view.versionStart, view.versionEnd) == '1.0'
+
+    assert view.type == 'maven'
+    assert view.namespace == ['org.example']
+    assert view.namespaceAsString == 'org.example'
+    assert view.name == 'foo bar'
+    assert view.version == '1.0'
+    assert view.getQualifier('classifier') == 'sources'
+    assert view.getQualifier('type') == 'jar'
+    assert view.getQualifier('empty') == null
+    assert view.getQualifier('missing') == null
+    assert view.subpathAsString == 'src/main'
+    assert view.toString() == value
+
+    def purl = view.toPackageUrl()
+    assert purl == PackageUrl.parse(value)
+    assert purl.getQualifier('type') == view.getQualifier('type')
+  }
+
+  @Test
+  void 'view range of chars'() {
+    def chars = 'xxpkg:npm/left-pad@1.3.0yy'.toCharArray()
+    def view = new PackageUrlView()
+
+    assert view.reset(chars, 2, chars.length - 4)
+    assert view.typeEquals('NPM')
+    assert !view.typeEquals('maven')
+    assert view.nameEquals('left-pad')
+    assert !view.nameEquals('left')
+    assert view.namespaceStart == -1
+    assert view.namespace == null
+    assert view.version == '1.3.0'
+    assert view.qualifiersStart == -1
+    assert view.subpathStart == -1
+    assert view.toPackageUrl() == PackageUrl.parse('pkg:npm/left-pad@1.3.0')
+  }
+
+  @Test
+  void 'view is reusable'() {
+    def view = new PackageUrlView()
+
+    assert view.reset('pkg:maven/a/b@1')
+    assert view.name == 'b'
+    assert !view.reset('pkg:')
+    assert !view.valid
+    assert view.failureOffset >= 0
+    assert view.reset('maven:a/c@2')
+    assert view.name == 'c'
+  }
+
+  @Test
+  void 'type-specific transformations follow parser'() {
+    def value = 'pkg:github/Sonatype/Package-URL-Java'
+
+    def view = new PackageUrlView()
+    assert view.reset(value)
+    assert view.namespaceAsString == 'sonatype'
+    assert view.name == 'package-url-java'
+    assert view.nameEquals('package-url-java')
+
+    view = new PackageUrlView(PackageUrl.parser().typeSpecificTransformations(false))
+    assert view.reset(value)
+    assert view.namespaceAsString == 'Sonatype'
+    assert view.name == 'Package-URL-Java'
+  }
+
+  @Test
+  void 'normalizers follow parser'() {
+    def normalizers = PackageUrlNormalizers.defaults().with('internal', PackageUrlNormalizers.lowerCaseName())
+    def view = new PackageUrlView(PackageUrl.parser().normalizers(normalizers))
+    assert view.reset('pkg:Internal/Acme/Widget')
+    assert view.namespaceAsString == 'Acme'
+    assert view.name == 'widget'
+    assert view.nameEquals('widget')
+
+    assert view.reset('pkg:GitHub/Acme/Widget')
+    assert view.name == 'widget'
+
+    assert view.reset('pkg:maven/Acme/Widget')
+    assert view.name == 'Widget'
+  }
+
+  @Test
+  void 'qualifier duplicates resolve as parsed'() {
+    def view = new PackageUrlView()
+    def values = [
+        'pkg:generic/x?a=1&A=': '1',
+        'pkg:generic/x?A=&a=1': '1',
+        'pkg:generic/x?a=1&A=2&a=': '2',
+        'pkg:generic/x?A=2&a=1&b=3': '1',
+        'pkg:generic/x?a=1&a=%20': null,
+    ]
+    values.each { value, expected ->
+      assert view.reset(value)
+      assert view.getQualifier('a') == expected
+      assert PackageUrl.parse(value).getQualifier('a') == expected
+    }
+  }
+
+  @Test
+  void 'convert located components'() {
+    def view = new PackageUrlView(PackageUrl.parser().typeSpecificTransformations(false))
+    assert view.reset('pkg:maven/a//b/c@1')
+    2.times {
+      try {
+        view.toPackageUrl()
+        fail()
+      }
+      catch (EmptySegmentException e) {
+        // expected
+      }
+    }
+    def chars = 'xpkg:github/Acme/Widget@1?Type=jar#src'.toCharArray()
+    assert view.reset(chars, 1, chars.length - 1)
+    def purl = view.toPackageUrl()
+    assert purl == PackageUrl.parser().typeSpecificTransformations(false).parse('pkg:github/Acme/Widget@1?type=jar#src')
+    assert purl.name == 'Widget'
+  }
+
+  @Test(expected = IllegalStateException.class)
+  void 'invalid view has no components'() {
+    def view = new PackageUrlView()
+    assert !view.reset('not a purl')
+    view.name
+  }
+
+  @Test(expected = EmptySegmentException.class)
+  void 'component failures are raised on access'() {
+    def view = new PackageUrlView()
+    assert view.reset('pkg:maven/a//b/c@1')
+    view.namespace
+  }
+}
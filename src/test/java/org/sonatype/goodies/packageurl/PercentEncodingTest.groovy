@@ -67,6 +67,32 @@ class PercentEncodingTest
     assertEncoding '~user', '~user'
   }
 
+  @Test
+  void 'non-ascii is encoded as utf-8'() {
+    assertEncoding 'caf\u00e9', 'caf%C3%A9'
+    assertEncoding '\u4e2d\u6587', '%E4%B8%AD%E6%96%87'
+    assertEncoding '\ud83d\ude00', '%F0%9F%98%80'
+  }
+
+  @Test
+  void 'plus is not decoded as space'() {
+    assertEncoding '1.0+build', '1.0%2Bbuild'
+    assert PercentEncoding.decode('1.0+build') == '1.0+build'
+  }
+
+  @Test
+  void 'unchanged values are returned as-is'() {
+    def value = 'commons-lang3'
+    assert PercentEncoding.encode(value).is(value)
+    assert PercentEncoding.encodeName(value).is(value)
+    assert PercentEncoding.decode(value).is(value)
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  void 'malformed escape'() {
+    PercentEncoding.decode('foo%2')
+  }
+
   @Test
   void 'simpleReplace'() {
     assert PercentEncoding.simpleReplace("xxxxyyyyxxxx", "y", "a") == "xxxxaaaaxxxx"
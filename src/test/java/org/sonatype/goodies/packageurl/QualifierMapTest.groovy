@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link QualifierMap} tests.
+ */
+class QualifierMapTest
+    extends TestSupport
+{
+  @Test
+  void 'behaves as sorted map'() {
+    def expected = [c: '3', a: '1', b: '2'] as TreeMap
+    def map = QualifierMap.copyOf([c: '3', a: '1', b: '2'])
+
+    assert map == expected
+    assert expected == map
+    assert map.hashCode() == expected.hashCode()
+    assert map.toString() == expected.toString()
+    assert map.keySet() as List == ['a', 'b', 'c']
+    assert map.firstKey() == 'a'
+    assert map.lastKey() == 'c'
+    assert map.get('b') == '2'
+    assert map.get('d') == null
+    assert map.containsKey('c')
+    assert !map.containsKey('d')
+
+    assert map.headMap('b') == expected.headMap('b')
+    assert map.tailMap('b') == expected.tailMap('b')
+    assert map.subMap('a', 'c') == expected.subMap('a', 'c')
+    assert map.subMap('aa', 'bb') == expected.subMap('aa', 'bb')
+    assert map.subMap('aa', 'bb').get('a') == null
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  void 'is unmodifiable'() {
+    QualifierMap.copyOf([a: '1']).put('b', '2')
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  void 'entries are unmodifiable'() {
+    QualifierMap.copyOf([a: '1']).entrySet().iterator().next().setValue('2')
+  }
+
+  @Test
+  void 'normalize lower-cases keys and omits blank values'() {
+    def map = QualifierMap.normalize([Type: 'jar', b: ' ', A: '1', a: '2'])
+    assert map == [a: '2', type: 'jar']
+    assert map.keySet().find { it == 'type' }.is('type')
+    assert QualifierMap.normalize([a: '']) == null
+    assert QualifierMap.normalize(map).is(map)
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2018-present Sonatype, Inc. All rights reserved.
+ *
+ * This program is licensed to you under the Apache License Version 2.0,
+ * and you may not use this file except in compliance with the Apache License Version 2.0.
+ * You may obtain a copy of the Apache License Version 2.0 at http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the Apache License Version 2.0 is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Apache License Version 2.0 for the specific language governing permissions and limitations there under.
+ */
+package org.sonatype.goodies.packageurl
+
+import org.sonatype.goodies.testsupport.TestSupport
+
+import org.junit.Test
+
+/**
+ * {@link SegmentList} tests.
+ */
+class SegmentListTest
+    extends TestSupport
+{
+  @Test
+  void 'behaves as list'() {
+    def expected = ['a', 'b', 'c']
+    def list = SegmentList.copyOf(expected)
+
+    assert list == expected
+    assert expected == list
+    assert list.hashCode() == expected.hashCode()
+    assert list.toString() == expected.toString()
+    assert list.size() == 3
+    assert list[1] == 'b'
+    assert list.subList(1, 3) == ['b', 'c']
+    assert SegmentList.copyOf(list).is(list)
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  void 'is unmodifiable'() {
+    SegmentList.copyOf(['a']).add('b')
+  }
+
+  @Test
+  void 'joined string is computed once'() {
+    def list = SegmentList.copyOf(['a', 'b'])
+    assert list.asString() == 'a/b'
+    assert list.asString().is(list.asString())
+
+    def segment = 'a'
+    assert SegmentList.of([segment] as String[]).asString().is(segment)
+  }
+}
@@ -12,12 +12,19 @@
  */
 package org.sonatype.goodies.packageurl.jackson
 
+import org.sonatype.goodies.packageurl.InvalidException
 import org.sonatype.goodies.packageurl.PackageUrl
+import org.sonatype.goodies.packageurl.PackageUrlCache
+import org.sonatype.goodies.packageurl.PackageUrlInterner
+import org.sonatype.goodies.packageurl.PackageUrlNormalizers
 import org.sonatype.goodies.packageurl.RenderFlavor
 import org.sonatype.goodies.testsupport.TestSupport
 
+import com.fasterxml.jackson.annotation.JsonFormat
 import com.fasterxml.jackson.annotation.JsonProperty
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException
+import com.fasterxml.jackson.databind.module.SimpleModule
 import groovy.transform.ToString
 import org.junit.Before
 import org.junit.Test
@@ -107,4 +114,140 @@ class PackageUrlModuleTest
       }
     }
   }
+
+  @Test
+  void 'round-trip values larger than serializer buffer'() {
+    def values = [
+        PackageUrl.parse('pkg:maven/foo/bar@1?classifier=' + ('x' * 300) + '#a%20b/c'),
+        PackageUrl.parse('pkg:npm/%40scope/name@1.0'),
+        PackageUrl.parse('pkg:generic/' + ('y' * 2000)),
+        PackageUrl.parse('pkg:npm/left-pad@1.3.0'),
+    ]
+    def json = objectMapper.writeValueAsString(values)
+    assert json == '[' + values.collect { '"' + it.toString(RenderFlavor.SCHEME) + '"' }.join(',') + ']'
+    assert objectMapper.readValue(json, PackageUrl[].class) as List == values
+  }
+
+  @Test
+  void 'serialize rendered and unrendered values'() {
+    def rendered = PackageUrl.parse('pkg:maven/foo/bar@1')
+    rendered.toString(RenderFlavor.SCHEME)
+    def unrendered = PackageUrl.parse('pkg:maven/foo/bar@2')
+    assert objectMapper.writeValueAsString([rendered, unrendered]) == '["pkg:maven/foo/bar@1","pkg:maven/foo/bar@2"]'
+  }
+
+  @Test
+  void 'deserialize escaped string'() {
+    def value = objectMapper.readValue('"pkg:maven/foo/b\\u0061r@1"', PackageUrl.class)
+    assert value == PackageUrl.parse('pkg:maven/foo/bar@1')
+  }
+
+  @Test
+  void 'deserialize with cache'() {
+    def cache = PackageUrlCache.lru(16)
+    def mapper = new ObjectMapper().registerModule(new PackageUrlModule().withCache(cache))
+    def first = mapper.readValue('"pkg:maven/foo/bar@1"', PackageUrl.class)
+    def second = mapper.readValue('"pkg:maven/foo/bar@1"', PackageUrl.class)
+    assert first == PackageUrl.parse('pkg:maven/foo/bar@1')
+    assert second.is(first)
+    assert cache.size() == 1
+  }
+
+  @Test
+  void 'module with cache is serializable'() {
+    def module = new PackageUrlModule().withCache(PackageUrlCache.lru(16))
+    def buff = new ByteArrayOutputStream()
+    new ObjectOutputStream(buff).withCloseable { it.writeObject(module) }
+    def copy = new ObjectInputStream(new ByteArrayInputStream(buff.toByteArray())).withCloseable { it.readObject() }
+    def mapper = new ObjectMapper().registerModule(copy as PackageUrlModule)
+    assert mapper.readValue('"pkg:maven/foo/bar@1"', PackageUrl.class) == PackageUrl.parse('pkg:maven/foo/bar@1')
+  }
+
+  @Test
+  void 'serialize and deserialize object shape'() {
+    def mapper = new ObjectMapper().registerModule(new PackageUrlModule().withShape(JsonFormat.Shape.OBJECT))
+    def value = PackageUrl.parse('pkg:maven/org.example/na%20me@1.0?type=jar&classifier=sources#a/b%20c')
+    def json = mapper.writeValueAsString(value)
+    assert json == '{"type":"maven","namespace":["org.example"],"name":"na me","version":"1.0",' +
+        '"qualifiers":{"classifier":"sources","type":"jar"},"subpath":["a","b c"]}'
+    assert mapper.readValue(json, PackageUrl.class) == value
+
+    // absent and null components are omitted
+    assert mapper.writeValueAsString(PackageUrl.parse('pkg:npm/left-pad')) == '{"type":"npm","name":"left-pad"}'
+    assert mapper.readValue('{"type":"npm","name":"left-pad","version":null}', PackageUrl.class) ==
+        PackageUrl.parse('pkg:npm/left-pad')
+
+    // string shape is still accepted
+    assert mapper.readValue('"pkg:npm/left-pad"', PackageUrl.class) == PackageUrl.parse('pkg:npm/left-pad')
+  }
+
+  @Test
+  void 'object shape is built as builder'() {
+    // type-specific transformations
+    assert objectMapper.readValue('{"type":"github","namespace":["Sonatype"],"name":"Package-URL-Java"}',
+        PackageUrl.class) == PackageUrl.parse('pkg:github/sonatype/package-url-java')
+  }
+
+  @Test
+  void 'object shape is built as the deserializer parser'() {
+    def interner = PackageUrlInterner.strong()
+    def normalizers = PackageUrlNormalizers.defaults().with('internal', PackageUrlNormalizers.lowerCaseName())
+    def purlParser = PackageUrl.parser().normalizers(normalizers).interner(interner)
+    def mapper = new ObjectMapper().registerModule(new SimpleModule()
+        .addDeserializer(PackageUrl.class, new PackageUrlModule.PackageUrlDeserializer(purlParser)))
+
+    def string = mapper.readValue('"pkg:internal/Acme/Widget@1"', PackageUrl.class)
+    def object = mapper.readValue('{"type":"internal","namespace":["Acme"],"name":"Widget","version":"1"}',
+        PackageUrl.class)
+    assert object.name == 'widget'
+    assert object.is(string)
+
+    purlParser = PackageUrl.parser().typeSpecificTransformations(false)
+    mapper = new ObjectMapper().registerModule(new SimpleModule()
+        .addDeserializer(PackageUrl.class, new PackageUrlModule.PackageUrlDeserializer(purlParser)))
+    object = mapper.readValue('{"type":"github","namespace":["Sonatype"],"name":"Package-URL-Java"}', PackageUrl.class)
+    assert object == mapper.readValue('"pkg:github/Sonatype/Package-URL-Java"', PackageUrl.class)
+    assert object.name == 'Package-URL-Java'
+  }
+
+  @Test(expected = InvalidException.class)
+  void 'object shape is validated'() {
+    objectMapper.readValue('{"type":"maven","namespace":["a/b"],"name":"c"}', PackageUrl.class)
+  }
+
+  @Test(expected = UnrecognizedPropertyException.class)
+  void 'object shape rejects unknown fields'() {
+    objectMapper.readValue('{"type":"maven","name":"b","extra":1}', PackageUrl.class)
+  }
+
+  private static class ShapedEnvelope
+  {
+    @JsonProperty
+    PackageUrl text
+
+    @JsonProperty
+    @JsonFormat(shape = JsonFormat.Shape.OBJECT)
+    PackageUrl components
+  }
+
+  @Test
+  void 'shape per property'() {
+    def value = new ShapedEnvelope(
+        text: PackageUrl.parse('pkg:maven/foo/bar@1'),
+        components: PackageUrl.parse('pkg:maven/foo/bar@1')
+    )
+    def json = objectMapper.writeValueAsString(value)
+    assert json == '{"text":"pkg:maven/foo/bar@1",' +
+        '"components":{"type":"maven","namespace":["foo"],"name":"bar","version":"1"}}'
+    objectMapper.readValue(json, ShapedEnvelope.class).with {
+      assert text == value.text
+      assert components == value.components
+    }
+  }
+
+  @Test
+  void 'shape per type'() {
+    objectMapper.configOverride(PackageUrl.class).format = JsonFormat.Value.forShape(JsonFormat.Shape.OBJECT)
+    assert objectMapper.writeValueAsString(PackageUrl.parse('pkg:npm/left-pad')) == '{"type":"npm","name":"left-pad"}'
+  }
 }